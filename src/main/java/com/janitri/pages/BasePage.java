@@ -0,0 +1,144 @@
+package com.janitri.pages;
+
+import com.janitri.utils.DomConditions;
+import com.janitri.utils.DomWait;
+import com.janitri.utils.ReportManager;
+import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Base class for page objects that caches located element handles.
+ * Cached handles are used optimistically: the browser reports a StaleElementReferenceException once the
+ * DOM node has been replaced, and only then is the element located again. Handles are cached per thread
+ * because each worker thread drives its own browser session.
+ */
+public abstract class BasePage {
+    // Statistics
+    private static final LongAdder lookupsAvoided = new LongAdder();
+    private static final LongAdder relocations = new LongAdder();
+
+    protected final WebDriver driver;
+    protected final DomWait wait;
+    private final ThreadLocal<Map<By, WebElement>> handles = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Constructor for BasePage
+     * @param driver WebDriver instance
+     * @param timeout How long to wait for elements
+     */
+    protected BasePage(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.wait = new DomWait(driver, timeout);
+    }
+
+    /**
+     * Run an action on an element, using the cached handle when there is one.
+     * If the cached handle is stale or not interactable, the element is located again and the action retried.
+     * @param locator Element locator
+     * @param action Action to run
+     * @param <T> Type of the action's result
+     * @return Result of the action
+     */
+    protected <T> T withElement(By locator, Function<WebElement, T> action) {
+        WebElement cached = handles.get().get(locator);
+        if (cached != null) {
+            try {
+                T result = action.apply(cached);
+                lookupsAvoided.increment();
+                return result;
+            } catch (StaleElementReferenceException | ElementNotInteractableException e) {
+                handles.get().remove(locator);
+                relocations.increment();
+            }
+        }
+        return action.apply(locateVisible(locator));
+    }
+
+    /**
+     * Run an action without a result on an element, using the cached handle when there is one
+     * @param locator Element locator
+     * @param action Action to run
+     */
+    protected void onElement(By locator, Consumer<WebElement> action) {
+        withElement(locator, element -> {
+            action.accept(element);
+            return null;
+        });
+    }
+
+    /**
+     * Get a visible element for callers that keep the handle.
+     * The cached handle is checked with a single isDisplayed call before it is handed out.
+     * @param locator Element locator
+     * @return Visible element
+     */
+    protected WebElement visibleElement(By locator) {
+        WebElement cached = handles.get().get(locator);
+        if (cached != null) {
+            try {
+                if (cached.isDisplayed()) {
+                    lookupsAvoided.increment();
+                    return cached;
+                }
+            } catch (StaleElementReferenceException e) {
+                relocations.increment();
+            }
+            handles.get().remove(locator);
+        }
+        return locateVisible(locator);
+    }
+
+    /**
+     * Wait for an element to be visible and cache its handle
+     * @param locator Element locator
+     * @return Visible element
+     */
+    protected WebElement locateVisible(By locator) {
+        return cache(locator, wait.until(DomConditions.visibilityOfElementLocated(locator)));
+    }
+
+    /**
+     * Wait for an element to be clickable and cache its handle
+     * @param locator Element locator
+     * @return Clickable element
+     */
+    protected WebElement locateClickable(By locator) {
+        return cache(locator, wait.until(DomConditions.elementToBeClickable(locator)));
+    }
+
+    private WebElement cache(By locator, WebElement element) {
+        handles.get().put(locator, element);
+        return element;
+    }
+
+    /**
+     * Forget all cached handles of the current thread, e.g. after navigating away
+     */
+    public void clearElementCache() {
+        handles.get().clear();
+    }
+
+    /**
+     * Record how many element lookups the handle cache avoided in the report and reset the counters
+     * @param reportManager ReportManager to record metrics in
+     */
+    public static void recordMetrics(ReportManager reportManager) {
+        long avoided = lookupsAvoided.sumThenReset();
+        long relocated = relocations.sumThenReset();
+        if (avoided + relocated == 0) {
+            return;
+        }
+        reportManager.addFrameworkMetric("Element lookups avoided",
+                avoided + " (" + relocated + " stale handles located again)");
+    }
+}
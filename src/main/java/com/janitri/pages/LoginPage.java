@@ -1,22 +1,69 @@
 package com.janitri.pages;
 
+import com.janitri.utils.DomConditions;
+import com.janitri.utils.WaitStrategy;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Page Object class for the Login page
+ * Page Object class for the Login page.
+ * State queries answer from a fresh {@link #snapshot()} and only wait when the element is not displayed yet;
+ * interactions reuse cached element handles.
  */
-public class LoginPage {
-    private final WebDriver driver;
-    private final WebDriverWait wait;
+public class LoginPage extends BasePage {
+    // Locator names used by snapshot()
+    public static final String USER_ID_INPUT = "userIdInput";
+    public static final String PASSWORD_INPUT = "passwordInput";
+    public static final String LOGIN_BUTTON = "loginButton";
+    public static final String PASSWORD_VISIBILITY_TOGGLE = "passwordVisibilityToggle";
+    public static final String ERROR_MESSAGE = "errorMessage";
+    public static final String PAGE_TITLE = "pageTitle";
+    public static final String FORGOT_PASSWORD_LINK = "forgotPasswordLink";
+    public static final String REMEMBER_ME_CHECKBOX = "rememberMeCheckbox";
+    public static final String SIGN_UP_LINK = "signUpLink";
+    public static final String LOGIN_FORM = "loginForm";
+
+    // Attributes captured for every element in a snapshot
+    private static final String[] SNAPSHOT_ATTRIBUTES = {"id", "name", "type", "placeholder", "autocomplete",
+            "required", "aria-label", "aria-required", "role", "href", "method", "action", "enctype"};
+
+    private static final String SNAPSHOT_SCRIPT =
+            "var specs = arguments[0], attributeNames = arguments[1], elements = {};"
+            + "var first = " + DomConditions.FIND_FIRST_FUNCTION + ";"
+            + "var visible = " + DomConditions.IS_DISPLAYED_FUNCTION + ";"
+            + "Object.keys(specs).forEach(function(name) {"
+            + "  var el = null;"
+            + "  try { el = first(specs[name]); } catch (e) {}"
+            + "  if (!el) { elements[name] = {present: false}; return; }"
+            + "  var attributes = {};"
+            + "  attributeNames.forEach(function(attribute) {"
+            + "    var value = el.getAttribute(attribute);"
+            + "    if (value !== null) attributes[attribute] = value;"
+            + "  });"
+            + "  if (typeof el.value === 'string') attributes.value = el.value;"
+            // Form properties give the effective method, resolved action and default enctype, as getAttribute does
+            + "  if (el.tagName === 'FORM') {"
+            + "    ['method', 'action', 'enctype', 'autocomplete'].forEach(function(property) {"
+            + "      if (typeof el[property] === 'string') attributes[property] = el[property];"
+            + "    });"
+            + "  }"
+            + "  var displayed = visible(el);"
+            + "  elements[name] = {present: true, displayed: displayed, enabled: !el.matches(':disabled'),"
+            + "      text: displayed ? (el.innerText || '').trim() : '', attributes: attributes};"
+            + "});"
+            + "return {elements: elements, lang: document.documentElement.lang};";
+
     
     // Locators
     private final By userIdInput = By.id("userId"); // Assuming ID is "userId"
@@ -29,14 +76,118 @@ public class LoginPage {
     private final By rememberMeCheckbox = By.xpath("//input[@type='checkbox'][contains(@id, 'remember') or contains(@name, 'remember')]");
     private final By signUpLink = By.xpath("//a[contains(text(), 'Sign up') or contains(text(), 'Register') or contains(text(), 'Create account')]");
     private final By loginForm = By.xpath("//form[.//input[@id='userId'] or .//input[@id='password']]");
+    private final Map<String, By> locators;
     
     /**
      * Constructor for LoginPage
      * @param driver WebDriver instance
      */
     public LoginPage(WebDriver driver) {
-        this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        super(driver, Duration.ofSeconds(10));
+
+        Map<String, By> named = new LinkedHashMap<>();
+        named.put(USER_ID_INPUT, userIdInput);
+        named.put(PASSWORD_INPUT, passwordInput);
+        named.put(LOGIN_BUTTON, loginButton);
+        named.put(PASSWORD_VISIBILITY_TOGGLE, passwordVisibilityToggle);
+        named.put(ERROR_MESSAGE, errorMessage);
+        named.put(PAGE_TITLE, pageTitle);
+        named.put(FORGOT_PASSWORD_LINK, forgotPasswordLink);
+        named.put(REMEMBER_ME_CHECKBOX, rememberMeCheckbox);
+        named.put(SIGN_UP_LINK, signUpLink);
+        named.put(LOGIN_FORM, loginForm);
+        this.locators = Collections.unmodifiableMap(named);
+    }
+
+    /**
+     * Get the page's locators by name
+     * @return Unmodifiable map of locator name to locator
+     */
+    public Map<String, By> getLocators() {
+        return locators;
+    }
+
+    /**
+     * Capture the presence, visibility, enabled state, key attributes and text of every element
+     * in a single executeScript call.
+     * If the login form has not rendered yet, waits for it first.
+     * @return Immutable page state
+     */
+    public LoginPageState snapshot() {
+        LoginPageState state = captureState();
+        if (!state.getElement(USER_ID_INPUT).isDisplayed()) {
+            try {
+                locateVisible(userIdInput);
+                state = captureState();
+            } catch (WebDriverException e) {
+                // Form never rendered; return the state as it is
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Capture the page state without waiting
+     * @return Immutable page state
+     */
+    @SuppressWarnings("unchecked")
+    private LoginPageState captureState() {
+        Map<String, Object> specs = new LinkedHashMap<>();
+        for (Map.Entry<String, By> locator : locators.entrySet()) {
+            Map<String, Object> spec = DomConditions.toLocatorSpec(locator.getValue());
+            if (spec != null) {
+                specs.put(locator.getKey(), spec);
+            }
+        }
+        Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+                .executeScript(SNAPSHOT_SCRIPT, specs, Arrays.asList(SNAPSHOT_ATTRIBUTES));
+
+        Map<String, LoginPageState.ElementState> elements = new LinkedHashMap<>();
+        Map<String, Object> captured = (Map<String, Object>) result.get("elements");
+        for (String name : locators.keySet()) {
+            Map<String, Object> element = (Map<String, Object>) captured.get(name);
+            elements.put(name, element != null ? toElementState(element) : lookUpElementState(locators.get(name)));
+        }
+        return new LoginPageState(elements, (String) result.get("lang"), System.currentTimeMillis());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LoginPageState.ElementState toElementState(Map<String, Object> element) {
+        if (!Boolean.TRUE.equals(element.get("present"))) {
+            return new LoginPageState.ElementState(false, false, false, "", Collections.emptyMap());
+        }
+        Map<String, String> attributes = new HashMap<>();
+        for (Map.Entry<String, Object> attribute : ((Map<String, Object>) element.get("attributes")).entrySet()) {
+            attributes.put(attribute.getKey(), String.valueOf(attribute.getValue()));
+        }
+        return new LoginPageState.ElementState(true,
+                Boolean.TRUE.equals(element.get("displayed")),
+                Boolean.TRUE.equals(element.get("enabled")),
+                (String) element.get("text"),
+                attributes);
+    }
+
+    /**
+     * Build an element state through WebDriver for locators the snapshot script cannot evaluate
+     * @param locator Element locator
+     * @return Element state
+     */
+    private LoginPageState.ElementState lookUpElementState(By locator) {
+        List<WebElement> found = driver.findElements(locator);
+        if (found.isEmpty()) {
+            return new LoginPageState.ElementState(false, false, false, "", Collections.emptyMap());
+        }
+        WebElement element = found.get(0);
+        Map<String, String> attributes = new HashMap<>();
+        for (String name : SNAPSHOT_ATTRIBUTES) {
+            String value = element.getAttribute(name);
+            if (value != null) {
+                attributes.put(name, value);
+            }
+        }
+        boolean displayed = element.isDisplayed();
+        return new LoginPageState.ElementState(true, displayed, element.isEnabled(),
+                displayed ? element.getText() : "", attributes);
     }
     
     /**
@@ -45,7 +196,7 @@ public class LoginPage {
      * @return LoginPage instance for method chaining
      */
     public LoginPage enterUserId(String userId) {
-        wait.until(ExpectedConditions.visibilityOfElementLocated(userIdInput)).sendKeys(userId);
+        onElement(userIdInput, element -> element.sendKeys(userId));
         return this;
     }
     
@@ -55,7 +206,7 @@ public class LoginPage {
      * @return LoginPage instance for method chaining
      */
     public LoginPage enterPassword(String password) {
-        wait.until(ExpectedConditions.visibilityOfElementLocated(passwordInput)).sendKeys(password);
+        onElement(passwordInput, element -> element.sendKeys(password));
         return this;
     }
     
@@ -63,14 +214,14 @@ public class LoginPage {
      * Click the login button
      */
     public void clickLoginButton() {
-        wait.until(ExpectedConditions.elementToBeClickable(loginButton)).click();
+        locateClickable(loginButton).click();
     }
     
     /**
      * Toggle password visibility
      */
     public void togglePasswordVisibility() {
-        wait.until(ExpectedConditions.elementToBeClickable(passwordVisibilityToggle)).click();
+        locateClickable(passwordVisibilityToggle).click();
     }
     
     /**
@@ -78,7 +229,11 @@ public class LoginPage {
      * @return true if login button is enabled, false otherwise
      */
     public boolean isLoginButtonEnabled() {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(loginButton)).isEnabled();
+        LoginPageState.ElementState button = captureState().getElement(LOGIN_BUTTON);
+        if (button.isDisplayed()) {
+            return button.isEnabled();
+        }
+        return locateVisible(loginButton).isEnabled();
     }
     
     /**
@@ -86,7 +241,11 @@ public class LoginPage {
      * @return true if password is masked, false otherwise
      */
     public boolean isPasswordMasked() {
-        String type = wait.until(ExpectedConditions.visibilityOfElementLocated(passwordInput)).getAttribute("type");
+        LoginPageState.ElementState password = captureState().getElement(PASSWORD_INPUT);
+        if (password.isDisplayed()) {
+            return "password".equals(password.getAttribute("type"));
+        }
+        String type = locateVisible(passwordInput).getAttribute("type");
         return "password".equals(type);
     }
     
@@ -95,8 +254,12 @@ public class LoginPage {
      * @return Error message text or empty string if not present
      */
     public String getErrorMessage() {
+        LoginPageState state = captureState();
+        if (state.getElement(ERROR_MESSAGE).isDisplayed()) {
+            return state.getErrorMessage();
+        }
         try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(errorMessage)).getText();
+            return locateVisible(errorMessage).getText();
         } catch (Exception e) {
             return "";
         }
@@ -107,11 +270,7 @@ public class LoginPage {
      * @return true if page title is present, false otherwise
      */
     public boolean isPageTitlePresent() {
-        try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(pageTitle)).isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return captureState().isPageTitlePresent() || isVisibleAfterWait(pageTitle);
     }
     
     /**
@@ -119,11 +278,7 @@ public class LoginPage {
      * @return true if user ID input field is present, false otherwise
      */
     public boolean isUserIdInputPresent() {
-        try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(userIdInput)).isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return captureState().isUserIdInputPresent() || isVisibleAfterWait(userIdInput);
     }
     
     /**
@@ -131,11 +286,7 @@ public class LoginPage {
      * @return true if password input field is present, false otherwise
      */
     public boolean isPasswordInputPresent() {
-        try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(passwordInput)).isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return captureState().isPasswordInputPresent() || isVisibleAfterWait(passwordInput);
     }
     
     /**
@@ -143,8 +294,17 @@ public class LoginPage {
      * @return true if password visibility toggle is present, false otherwise
      */
     public boolean isPasswordVisibilityTogglePresent() {
+        return captureState().isPasswordVisibilityTogglePresent() || isVisibleAfterWait(passwordVisibilityToggle);
+    }
+    
+    /**
+     * Wait for an element to become visible
+     * @param locator Element locator
+     * @return true if the element became visible within the wait timeout, false otherwise
+     */
+    private boolean isVisibleAfterWait(By locator) {
         try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(passwordVisibilityToggle)).isDisplayed();
+            return locateVisible(locator).isDisplayed();
         } catch (Exception e) {
             return false;
         }
@@ -155,7 +315,7 @@ public class LoginPage {
      * @return LoginPage instance for method chaining
      */
     public LoginPage clearUserId() {
-        wait.until(ExpectedConditions.visibilityOfElementLocated(userIdInput)).clear();
+        onElement(userIdInput, WebElement::clear);
         return this;
     }
     
@@ -164,7 +324,7 @@ public class LoginPage {
      * @return LoginPage instance for method chaining
      */
     public LoginPage clearPassword() {
-        wait.until(ExpectedConditions.visibilityOfElementLocated(passwordInput)).clear();
+        onElement(passwordInput, WebElement::clear);
         return this;
     }
     
@@ -173,7 +333,7 @@ public class LoginPage {
      * @return WebElement for user ID field
      */
     public WebElement getUserIdField() {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(userIdInput));
+        return visibleElement(userIdInput);
     }
     
     /**
@@ -181,7 +341,7 @@ public class LoginPage {
      * @return WebElement for password field
      */
     public WebElement getPasswordField() {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(passwordInput));
+        return visibleElement(passwordInput);
     }
     
     /**
@@ -189,7 +349,7 @@ public class LoginPage {
      * @return WebElement for login button
      */
     public WebElement getLoginButton() {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(loginButton));
+        return visibleElement(loginButton);
     }
     
     /**
@@ -197,7 +357,7 @@ public class LoginPage {
      * @return ID attribute of user ID field
      */
     public String getUserIdFieldId() {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(userIdInput)).getAttribute("id");
+        return withElement(userIdInput, element -> element.getAttribute("id"));
     }
     
     /**
@@ -205,7 +365,7 @@ public class LoginPage {
      * @return ID attribute of password field
      */
     public String getPasswordFieldId() {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(passwordInput)).getAttribute("id");
+        return withElement(passwordInput, element -> element.getAttribute("id"));
     }
     
     /**
@@ -213,11 +373,7 @@ public class LoginPage {
      * @return true if "Forgot Password" link is present, false otherwise
      */
     public boolean isForgotPasswordLinkPresent() {
-        try {
-            return driver.findElement(forgotPasswordLink).isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return captureState().isForgotPasswordLinkPresent() || WaitStrategy.isDisplayed(driver, forgotPasswordLink);
     }
     
     /**
@@ -225,8 +381,12 @@ public class LoginPage {
      * @return true if clicked successfully, false otherwise
      */
     public boolean clickForgotPasswordLink() {
+        WebElement element = WaitStrategy.findIfPresent(driver, forgotPasswordLink);
+        if (element == null) {
+            return false;
+        }
         try {
-            driver.findElement(forgotPasswordLink).click();
+            element.click();
             return true;
         } catch (Exception e) {
             return false;
@@ -238,11 +398,7 @@ public class LoginPage {
      * @return true if "Remember Me" checkbox is present, false otherwise
      */
     public boolean isRememberMeCheckboxPresent() {
-        try {
-            return driver.findElement(rememberMeCheckbox).isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return captureState().isRememberMeCheckboxPresent() || WaitStrategy.isDisplayed(driver, rememberMeCheckbox);
     }
     
     /**
@@ -250,8 +406,12 @@ public class LoginPage {
      * @return true if toggled successfully, false otherwise
      */
     public boolean toggleRememberMeCheckbox() {
+        WebElement element = WaitStrategy.findIfPresent(driver, rememberMeCheckbox);
+        if (element == null) {
+            return false;
+        }
         try {
-            driver.findElement(rememberMeCheckbox).click();
+            element.click();
             return true;
         } catch (Exception e) {
             return false;
@@ -263,11 +423,7 @@ public class LoginPage {
      * @return true if "Sign Up" link is present, false otherwise
      */
     public boolean isSignUpLinkPresent() {
-        try {
-            return driver.findElement(signUpLink).isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return captureState().isSignUpLinkPresent() || WaitStrategy.isDisplayed(driver, signUpLink);
     }
     
     /**
@@ -275,8 +431,12 @@ public class LoginPage {
      * @return true if clicked successfully, false otherwise
      */
     public boolean clickSignUpLink() {
+        WebElement element = WaitStrategy.findIfPresent(driver, signUpLink);
+        if (element == null) {
+            return false;
+        }
         try {
-            driver.findElement(signUpLink).click();
+            element.click();
             return true;
         } catch (Exception e) {
             return false;
@@ -299,15 +459,22 @@ public class LoginPage {
      * @return Map of form attributes
      */
     public Map<String, String> getFormAttributes() {
+        LoginPageState state = captureState();
+        if (state.getElement(LOGIN_FORM).isPresent()) {
+            return state.getFormAttributes();
+        }
         Map<String, String> attributes = new HashMap<>();
+        WebElement form = WaitStrategy.findIfPresent(driver, loginForm);
+        if (form == null) {
+            return attributes;
+        }
         try {
-            WebElement form = driver.findElement(loginForm);
             attributes.put("method", form.getAttribute("method"));
             attributes.put("action", form.getAttribute("action"));
             attributes.put("enctype", form.getAttribute("enctype"));
             attributes.put("autocomplete", form.getAttribute("autocomplete"));
         } catch (Exception e) {
-            // Form not found or attributes not available
+            // Attributes not available
         }
         return attributes;
     }
@@ -318,7 +485,7 @@ public class LoginPage {
      */
     public long measureFormRenderTime() {
         long startTime = System.currentTimeMillis();
-        wait.until(ExpectedConditions.visibilityOfElementLocated(loginForm));
+        wait.until(DomConditions.visibilityOfElementLocated(loginForm));
         return System.currentTimeMillis() - startTime;
     }
     
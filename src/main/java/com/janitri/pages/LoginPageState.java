@@ -0,0 +1,172 @@
+package com.janitri.pages;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the Login page, captured in a single round-trip by {@link LoginPage#snapshot()}
+ */
+public final class LoginPageState {
+    private static final ElementState ABSENT = new ElementState(false, false, false, "", Collections.emptyMap());
+
+    private final Map<String, ElementState> elements;
+    private final String htmlLang;
+    private final long capturedAtMillis;
+
+    LoginPageState(Map<String, ElementState> elements, String htmlLang, long capturedAtMillis) {
+        this.elements = Collections.unmodifiableMap(new LinkedHashMap<>(elements));
+        this.htmlLang = htmlLang;
+        this.capturedAtMillis = capturedAtMillis;
+    }
+
+    /**
+     * Get the state of a named element
+     * @param name Locator name, e.g. {@link LoginPage#USER_ID_INPUT}
+     * @return Element state (absent if the name is unknown)
+     */
+    public ElementState getElement(String name) {
+        return elements.getOrDefault(name, ABSENT);
+    }
+
+    /**
+     * Get the state of every named element
+     * @return Unmodifiable map of locator name to element state
+     */
+    public Map<String, ElementState> getElements() {
+        return elements;
+    }
+
+    public boolean isPageTitlePresent() {
+        return getElement(LoginPage.PAGE_TITLE).isDisplayed();
+    }
+
+    public boolean isUserIdInputPresent() {
+        return getElement(LoginPage.USER_ID_INPUT).isDisplayed();
+    }
+
+    public boolean isPasswordInputPresent() {
+        return getElement(LoginPage.PASSWORD_INPUT).isDisplayed();
+    }
+
+    public boolean isPasswordVisibilityTogglePresent() {
+        return getElement(LoginPage.PASSWORD_VISIBILITY_TOGGLE).isDisplayed();
+    }
+
+    public boolean isLoginButtonEnabled() {
+        return getElement(LoginPage.LOGIN_BUTTON).isEnabled();
+    }
+
+    public boolean isPasswordMasked() {
+        return "password".equals(getElement(LoginPage.PASSWORD_INPUT).getAttribute("type"));
+    }
+
+    public boolean isForgotPasswordLinkPresent() {
+        return getElement(LoginPage.FORGOT_PASSWORD_LINK).isDisplayed();
+    }
+
+    public boolean isRememberMeCheckboxPresent() {
+        return getElement(LoginPage.REMEMBER_ME_CHECKBOX).isDisplayed();
+    }
+
+    public boolean isSignUpLinkPresent() {
+        return getElement(LoginPage.SIGN_UP_LINK).isDisplayed();
+    }
+
+    /**
+     * Get the error message text
+     * @return Error message text or empty string if no error message is displayed
+     */
+    public String getErrorMessage() {
+        ElementState error = getElement(LoginPage.ERROR_MESSAGE);
+        return error.isDisplayed() ? error.getText() : "";
+    }
+
+    /**
+     * Get the login form attributes relevant for security testing, read as form properties: the effective
+     * method and enctype (defaults "get" and "application/x-www-form-urlencoded") and the resolved action URL
+     * @return Map of method, action, enctype and autocomplete (empty if there is no form)
+     */
+    public Map<String, String> getFormAttributes() {
+        ElementState form = getElement(LoginPage.LOGIN_FORM);
+        Map<String, String> attributes = new HashMap<>();
+        if (form.isPresent()) {
+            for (String name : new String[] {"method", "action", "enctype", "autocomplete"}) {
+                attributes.put(name, form.getAttribute(name));
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Check if the page has an HTML lang attribute
+     * @return true if the lang attribute is present
+     */
+    public boolean hasHtmlLangAttribute() {
+        return htmlLang != null && !htmlLang.isEmpty();
+    }
+
+    public long getCapturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    /**
+     * State of a single element at the time of the snapshot
+     */
+    public static final class ElementState {
+        private final boolean present;
+        private final boolean displayed;
+        private final boolean enabled;
+        private final String text;
+        private final Map<String, String> attributes;
+
+        ElementState(boolean present, boolean displayed, boolean enabled, String text,
+                     Map<String, String> attributes) {
+            this.present = present;
+            this.displayed = displayed;
+            this.enabled = enabled;
+            this.text = text;
+            this.attributes = Collections.unmodifiableMap(new HashMap<>(attributes));
+        }
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public boolean isDisplayed() {
+            return displayed;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Get the visible text
+         * @return Text, empty if the element is not displayed
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Get an attribute captured with the snapshot
+         * @param name Attribute name
+         * @return Attribute value, or null if the element does not have it
+         */
+        public String getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public String toString() {
+            return present ? "displayed=" + displayed + ", enabled=" + enabled + ", attributes=" + attributes
+                    : "absent";
+        }
+    }
+}
@@ -98,7 +98,7 @@ public class AccessibilityUtils {
                 }
             } else {
                 // Check if the field is wrapped in a label
-                WebElement parent = field.findElement(By.xpath("./parent::label"));
+                WebElement parent = WaitStrategy.findIfPresent(field, By.xpath("./parent::label"));
                 if (parent == null) {
                     count++;
                     String name = field.getAttribute("name");
@@ -0,0 +1,273 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Gives each test its own isolated Chromium browser context instead of its own browser process.
+ * Every worker thread keeps one host browser; tests get a fresh context (separate cookies, storage
+ * and cache) created through the DevTools Target domain, which is disposed when the test ends.
+ */
+public class BrowserContextManager {
+    private static final int WINDOW_LOOKUP_ATTEMPTS = 20;
+
+    private final Supplier<WebDriver> hostLauncher;
+    private final boolean headless;
+    private final ThreadLocal<HostBrowser> hostBrowsers = new ThreadLocal<>();
+    private final Queue<HostBrowser> allHosts = new ConcurrentLinkedQueue<>();
+
+    // Statistics
+    private final LongAdder contextsOpened = new LongAdder();
+    private final LongAdder hostsLaunched = new LongAdder();
+    private final LongAdder openNanos = new LongAdder();
+
+    /**
+     * Constructor for BrowserContextManager
+     * @param hostLauncher Supplier that launches a Chromium-based host browser
+     * @param headless Whether the host browsers run headless
+     */
+    public BrowserContextManager(Supplier<WebDriver> hostLauncher, boolean headless) {
+        this.hostLauncher = hostLauncher;
+        this.headless = headless;
+    }
+
+    /**
+     * Open a new isolated context on the current thread's host browser and switch the driver to it
+     * @return Open context
+     */
+    public IsolatedContext open() {
+        long start = System.nanoTime();
+        HostBrowser host = getHost();
+        WebDriver driver = host.driver;
+        HasCdp cdp = (HasCdp) driver;
+
+        Map<String, Object> contextParams = new HashMap<>();
+        contextParams.put("disposeOnDetach", true);
+        String browserContextId = (String) cdp.executeCdpCommand("Target.createBrowserContext", contextParams)
+                .get("browserContextId");
+
+        String targetId = null;
+        try {
+            Set<String> handlesBefore = new HashSet<>(driver.getWindowHandles());
+            Map<String, Object> targetParams = new HashMap<>();
+            targetParams.put("url", "about:blank");
+            targetParams.put("browserContextId", browserContextId);
+            targetParams.put("newWindow", true);
+            if (headless) {
+                targetParams.put("width", 1920);
+                targetParams.put("height", 1080);
+            }
+            targetId = (String) cdp.executeCdpCommand("Target.createTarget", targetParams).get("targetId");
+
+            String windowHandle = findNewWindow(driver, handlesBefore, targetId);
+            driver.switchTo().window(windowHandle);
+            if (!headless) {
+                driver.manage().window().maximize();
+            }
+        } catch (RuntimeException e) {
+            // Do not leave the half-opened context behind in the shared host browser
+            discard(host, browserContextId, targetId);
+            throw e;
+        }
+
+        contextsOpened.increment();
+        openNanos.add(System.nanoTime() - start);
+        return new IsolatedContext(host, browserContextId, targetId);
+    }
+
+    /**
+     * Dispose a context that could not be opened completely and switch back to the host's own window
+     * @param host Host browser
+     * @param browserContextId Context to dispose
+     * @param targetId Target created in the context, or null
+     */
+    private static void discard(HostBrowser host, String browserContextId, String targetId) {
+        HasCdp cdp = (HasCdp) host.driver;
+        try {
+            if (targetId != null) {
+                Map<String, Object> targetParams = new HashMap<>();
+                targetParams.put("targetId", targetId);
+                cdp.executeCdpCommand("Target.closeTarget", targetParams);
+            }
+            Map<String, Object> contextParams = new HashMap<>();
+            contextParams.put("browserContextId", browserContextId);
+            cdp.executeCdpCommand("Target.disposeBrowserContext", contextParams);
+            host.driver.switchTo().window(host.windowHandle);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to dispose browser context " + browserContextId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Close a context and switch the host browser back to its own window.
+     * If the context cannot be disposed the host browser is quit and replaced on next use.
+     * @param context Context returned by {@link #open()}
+     */
+    public void close(IsolatedContext context) {
+        HostBrowser host = context.host;
+        try {
+            HasCdp cdp = (HasCdp) host.driver;
+            Map<String, Object> targetParams = new HashMap<>();
+            targetParams.put("targetId", context.targetId);
+            cdp.executeCdpCommand("Target.closeTarget", targetParams);
+
+            Map<String, Object> contextParams = new HashMap<>();
+            contextParams.put("browserContextId", context.browserContextId);
+            cdp.executeCdpCommand("Target.disposeBrowserContext", contextParams);
+
+            host.driver.switchTo().window(host.windowHandle);
+        } catch (Exception e) {
+            System.err.println("Failed to dispose browser context, restarting host browser: " + e.getMessage());
+            if (hostBrowsers.get() == host) {
+                hostBrowsers.remove();
+            }
+            allHosts.remove(host);
+            quietlyQuit(host.driver);
+        }
+    }
+
+    /**
+     * Get the current thread's host browser, launching it on first use
+     * @return Host browser
+     */
+    private HostBrowser getHost() {
+        HostBrowser host = hostBrowsers.get();
+        if (host == null) {
+            WebDriver driver = hostLauncher.get();
+            if (!(driver instanceof HasCdp)) {
+                quietlyQuit(driver);
+                throw new IllegalStateException("Browser context isolation requires a Chromium-based browser");
+            }
+            host = new HostBrowser(driver, driver.getWindowHandle());
+            hostBrowsers.set(host);
+            allHosts.add(host);
+            hostsLaunched.increment();
+        }
+        return host;
+    }
+
+    /**
+     * Wait for the driver to report the window of a newly created target
+     * @param driver Host driver
+     * @param handlesBefore Window handles before the target was created
+     * @param targetId DevTools target ID of the new window
+     * @return Window handle of the new target
+     */
+    private static String findNewWindow(WebDriver driver, Set<String> handlesBefore, String targetId) {
+        for (int attempt = 0; attempt < WINDOW_LOOKUP_ATTEMPTS; attempt++) {
+            Set<String> handles = driver.getWindowHandles();
+            if (handles.contains(targetId)) {
+                return targetId;
+            }
+            for (String handle : handles) {
+                if (!handlesBefore.contains(handle)) {
+                    return handle;
+                }
+            }
+            try {
+                Thread.sleep(25);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // ChromeDriver uses the target ID as window handle
+        return targetId;
+    }
+
+    /**
+     * Quit every host browser
+     */
+    public void shutdown() {
+        HostBrowser host;
+        while ((host = allHosts.poll()) != null) {
+            quietlyQuit(host.driver);
+        }
+    }
+
+    private static void quietlyQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Failed to quit host browser: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the number of contexts opened
+     * @return Context count
+     */
+    public long getContextsOpened() {
+        return contextsOpened.sum();
+    }
+
+    /**
+     * Get the number of host browser processes launched
+     * @return Host count
+     */
+    public long getHostsLaunched() {
+        return hostsLaunched.sum();
+    }
+
+    /**
+     * Get the average time to open a context, including host launches
+     * @return Average open latency in milliseconds
+     */
+    public double getAverageOpenMillis() {
+        long count = getContextsOpened();
+        return count == 0 ? 0.0 : openNanos.sum() / (count * 1_000_000.0);
+    }
+
+    /**
+     * Browser process shared by all contexts opened on one worker thread
+     */
+    private static class HostBrowser {
+        private final WebDriver driver;
+        private final String windowHandle;
+
+        HostBrowser(WebDriver driver, String windowHandle) {
+            this.driver = driver;
+            this.windowHandle = windowHandle;
+        }
+    }
+
+    /**
+     * Browser context opened for a single test
+     */
+    public static class IsolatedContext {
+        private final HostBrowser host;
+        private final String browserContextId;
+        private final String targetId;
+
+        IsolatedContext(HostBrowser host, String browserContextId, String targetId) {
+            this.host = host;
+            this.browserContextId = browserContextId;
+            this.targetId = targetId;
+        }
+
+        /**
+         * Get the driver, switched to this context's window
+         * @return WebDriver instance
+         */
+        public WebDriver getDriver() {
+            return host.driver;
+        }
+
+        /**
+         * Get the DevTools browser context ID
+         * @return Browser context ID
+         */
+        public String getBrowserContextId() {
+            return browserContextId;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency of every WebDriver command (findElement, getAttribute, executeScript, sendKeys...)
+ * made through a decorated driver. Latencies go into lock-free log2 histograms keyed by the calling
+ * test and the command, so parallel workers never contend on a lock while recording.
+ */
+public class CommandProfiler implements WebDriverListener {
+    private static final CommandProfiler INSTANCE = new CommandProfiler();
+
+    // Calls answered by the client without a round-trip to the browser
+    private static final Set<Class<?>> LOCAL_RESULT_TYPES = new HashSet<>(Arrays.asList(
+            WebDriver.Options.class, WebDriver.Navigation.class, WebDriver.TargetLocator.class,
+            WebDriver.Timeouts.class, WebDriver.Window.class, Alert.class));
+    private static final Set<String> LOCAL_METHODS = new HashSet<>(Arrays.asList(
+            "getWrappedDriver", "getWrappedElement", "getCapabilities", "getDevTools", "maybeGetDevTools",
+            "getSessionId", "getCommandExecutor", "getFileDetector", "setFileDetector", "getCoordinates"));
+
+    private static final Map<String, Map<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+    private static final ThreadLocal<long[]> callStarts = ThreadLocal.withInitial(() -> new long[8]);
+    private static final ThreadLocal<int[]> callDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private CommandProfiler() {
+    }
+
+    /**
+     * Wrap a driver so that all of its commands, and those of the elements it returns, are profiled
+     * @param driver Driver to wrap
+     * @return Decorated driver
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(INSTANCE).decorate(driver);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (isLocal(method)) {
+            return;
+        }
+        int[] depth = callDepth.get();
+        long[] starts = callStarts.get();
+        if (depth[0] == starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+            callStarts.set(starts);
+        }
+        starts[depth[0]++] = System.nanoTime();
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        record(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        record(method);
+    }
+
+    private static void record(Method method) {
+        if (isLocal(method)) {
+            return;
+        }
+        int[] depth = callDepth.get();
+        if (depth[0] == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - callStarts.get()[--depth[0]];
+
+        TestContext context = TestContext.current();
+        if (context != null) {
+            context.addRoundTrip();
+        }
+        Map<String, LatencyHistogram> testHistograms = histograms.get(TestContext.currentTestName());
+        if (testHistograms == null) {
+            testHistograms = histograms.computeIfAbsent(TestContext.currentTestName(),
+                    name -> new ConcurrentHashMap<>());
+        }
+        LatencyHistogram histogram = testHistograms.get(method.getName());
+        if (histogram == null) {
+            histogram = testHistograms.computeIfAbsent(method.getName(), name -> new LatencyHistogram());
+        }
+        histogram.record(elapsed);
+    }
+
+    private static boolean isLocal(Method method) {
+        return method.getDeclaringClass() == Object.class
+                || LOCAL_RESULT_TYPES.contains(method.getReturnType())
+                || LOCAL_METHODS.contains(method.getName());
+    }
+
+    /**
+     * Clear all recorded latencies
+     */
+    public static void reset() {
+        histograms.clear();
+    }
+
+    /**
+     * Get the total number of WebDriver round-trips recorded
+     * @return Round-trip count across all tests
+     */
+    public static long getTotalRoundTrips() {
+        long total = 0;
+        for (Map<String, LatencyHistogram> testHistograms : histograms.values()) {
+            for (LatencyHistogram histogram : testHistograms.values()) {
+                total += histogram.getCount();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Record the slowest commands in the report, ranked by their 95th percentile latency
+     * @param reportManager ReportManager to record the statistics in
+     * @param topN Number of commands to list
+     */
+    public static void recordMetrics(ReportManager reportManager, int topN) {
+        Map<String, LatencyHistogram> byCommand = new HashMap<>();
+        long totalNanos = 0;
+        for (Map<String, LatencyHistogram> testHistograms : histograms.values()) {
+            for (Map.Entry<String, LatencyHistogram> entry : testHistograms.entrySet()) {
+                byCommand.computeIfAbsent(entry.getKey(), name -> new LatencyHistogram()).add(entry.getValue());
+                totalNanos += entry.getValue().getTotalNanos();
+            }
+        }
+        if (byCommand.isEmpty()) {
+            return;
+        }
+        reportManager.addFrameworkMetric("WebDriver round-trips",
+                getTotalRoundTrips() + " commands, " + totalNanos / 1_000_000 + " ms in total");
+
+        List<Map.Entry<String, LatencyHistogram>> commands = new ArrayList<>(byCommand.entrySet());
+        commands.sort((a, b) -> Long.compare(b.getValue().getPercentileMicros(0.95),
+                a.getValue().getPercentileMicros(0.95)));
+        List<String[]> rows = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> command : commands.subList(0, Math.min(topN, commands.size()))) {
+            LatencyHistogram histogram = command.getValue();
+            rows.add(new String[] {
+                    command.getKey(),
+                    String.valueOf(histogram.getCount()),
+                    String.format("%.1f", histogram.getMeanMillis()),
+                    String.format("%.1f", histogram.getPercentileMicros(0.5) / 1000.0),
+                    String.format("%.1f", histogram.getPercentileMicros(0.95) / 1000.0),
+                    String.format("%.1f", histogram.getMaxNanos() / 1_000_000.0),
+                    String.format("%.0f", histogram.getTotalNanos() / 1_000_000.0),
+                    slowestTest(command.getKey())
+            });
+        }
+        reportManager.addFrameworkTable("Slowest WebDriver Commands",
+                new String[] {"Command", "Calls", "Mean (ms)", "p50 (ms)", "p95 (ms)", "Max (ms)", "Total (ms)",
+                        "Slowest Test"},
+                rows);
+    }
+
+    /**
+     * Find the test whose calls of a command had the highest mean latency
+     * @param command Command name
+     * @return Test name
+     */
+    private static String slowestTest(String command) {
+        String slowest = "";
+        double slowestMean = -1;
+        for (Map.Entry<String, Map<String, LatencyHistogram>> test : histograms.entrySet()) {
+            LatencyHistogram histogram = test.getValue().get(command);
+            if (histogram != null && histogram.getMeanMillis() > slowestMean) {
+                slowestMean = histogram.getMeanMillis();
+                slowest = test.getKey();
+            }
+        }
+        return slowest;
+    }
+
+    /**
+     * Lock-free latency histogram with power-of-two microsecond buckets
+     */
+    static class LatencyHistogram {
+        private static final int BUCKETS = 40;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        void record(long nanos) {
+            long micros = Math.max(1, nanos / 1000);
+            int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        void add(LatencyHistogram other) {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.addAndGet(i, other.buckets.get(i));
+            }
+            count.add(other.getCount());
+            totalNanos.add(other.getTotalNanos());
+            maxNanos.accumulate(other.getMaxNanos());
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        double getMeanMillis() {
+            long calls = getCount();
+            return calls == 0 ? 0.0 : getTotalNanos() / (calls * 1_000_000.0);
+        }
+
+        /**
+         * Get an upper bound for a percentile, accurate to the bucket width
+         * @param percentile Percentile between 0 and 1
+         * @return Latency in microseconds
+         */
+        long getPercentileMicros(double percentile) {
+            long calls = getCount();
+            long threshold = (long) Math.ceil(calls * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= threshold && seen > 0) {
+                    return Math.min(2L << i, Math.max(1, getMaxNanos() / 1000));
+                }
+            }
+            return getMaxNanos() / 1000;
+        }
+    }
+}
@@ -3,69 +3,127 @@ package com.janitri.utils;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Configuration manager to handle test properties
+ * Configuration manager to handle test properties.
+ * Properties are layered, highest precedence first: system properties, environment variables (the key in
+ * UPPER_SNAKE_CASE, e.g. REPORT_DIR for reportDir), config.properties, default_config.properties and
+ * hardcoded defaults. Every system property is part of the configuration; environment variables are applied to the
+ * keys of the files up front and looked up on first use for any other key.
+ * The merged values are parsed once into an immutable snapshot that is read without locking; with
+ * configHotReload=true the snapshot is rebuilt and swapped when a config file changes.
+ * The configFile system property points config.properties elsewhere.
  */
 public class ConfigManager {
     private static final String CONFIG_FILE = "config.properties";
     private static final String DEFAULT_CONFIG_FILE = "default_config.properties";
-    private static Properties properties;
-    private static ConfigManager instance;
+    private static final Path DEFAULT_CONFIG_PATH = Paths.get("src", "main", "resources", DEFAULT_CONFIG_FILE);
+
+    private volatile Snapshot snapshot;
+    private WatchService watchService;
+    private final Set<Path> watchedDirectories = new HashSet<>();
 
     private ConfigManager() {
-        properties = new Properties();
-        loadProperties();
+        snapshot = loadSnapshot();
+        updateWatcher();
+    }
+
+    private static class Holder {
+        private static final ConfigManager INSTANCE = new ConfigManager();
     }
 
     /**
      * Get singleton instance of ConfigManager
      * @return ConfigManager instance
      */
-    public static synchronized ConfigManager getInstance() {
-        if (instance == null) {
-            instance = new ConfigManager();
+    public static ConfigManager getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Load all configuration layers into a new snapshot
+     * @return Snapshot of the merged configuration
+     */
+    private static Snapshot loadSnapshot() {
+        Properties properties = new Properties();
+        setDefaultProperties(properties);
+        boolean defaultLoaded = loadFile(DEFAULT_CONFIG_PATH, properties);
+        boolean userLoaded = loadFile(getConfigPath(), properties);
+        if (!defaultLoaded && !userLoaded) {
+            System.err.println("No configuration file found. Using hardcoded defaults.");
+        }
+
+        Map<String, String> values = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String value = System.getenv(toEnvironmentName(key));
+            values.put(key, value != null ? value : properties.getProperty(key));
+        }
+        Properties systemProperties = System.getProperties();
+        for (String key : systemProperties.stringPropertyNames()) {
+            values.put(key, systemProperties.getProperty(key));
         }
-        return instance;
+        return new Snapshot(values);
     }
 
     /**
-     * Load properties from config file
+     * Get the path of the user configuration file
+     * @return configFile system property, or config.properties in the working directory
      */
-    private void loadProperties() {
-        try {
-            // First try to load from user-defined config file
-            Path configPath = Paths.get(CONFIG_FILE);
-            if (Files.exists(configPath)) {
-                try (InputStream input = new FileInputStream(CONFIG_FILE)) {
-                    properties.load(input);
-                }
-            } else {
-                // If user-defined config doesn't exist, load default config
-                Path defaultConfigPath = Paths.get("src", "main", "resources", DEFAULT_CONFIG_FILE);
-                if (Files.exists(defaultConfigPath)) {
-                    try (InputStream input = new FileInputStream(defaultConfigPath.toString())) {
-                        properties.load(input);
-                    }
-                } else {
-                    System.err.println("No configuration file found. Using hardcoded defaults.");
-                    setDefaultProperties();
-                }
-            }
+    private static Path getConfigPath() {
+        return Paths.get(System.getProperty("configFile", CONFIG_FILE)).toAbsolutePath();
+    }
+
+    private static boolean loadFile(Path path, Properties properties) {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (InputStream input = new FileInputStream(path.toString())) {
+            properties.load(input);
+            return true;
         } catch (IOException e) {
-            System.err.println("Error loading configuration: " + e.getMessage());
-            setDefaultProperties();
+            System.err.println("Error loading configuration from " + path + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Convert a property key to its environment variable name, e.g. performanceThreshold.3g to PERFORMANCE_THRESHOLD_3G
+     * @param key Property key
+     * @return Environment variable name
+     */
+    static String toEnvironmentName(String key) {
+        StringBuilder name = new StringBuilder(key.length() + 8);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) {
+                name.append('_');
+            }
+            name.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
         }
+        return name.toString();
     }
 
     /**
-     * Set default properties if no config file is found
+     * Set default properties used when no config file defines them
      */
-    private void setDefaultProperties() {
+    private static void setDefaultProperties(Properties properties) {
         properties.setProperty("browser", "chrome");
         properties.setProperty("baseUrl", "https://dev-dash.janitri.in/");
         properties.setProperty("timeout", "10");
@@ -73,13 +131,80 @@ public class ConfigManager {
         properties.setProperty("takeScreenshotOnFailure", "true");
     }
 
+    /**
+     * Reload all configuration layers and publish the new snapshot
+     */
+    public void reload() {
+        snapshot = loadSnapshot();
+        updateWatcher();
+    }
+
+    /**
+     * With configHotReload=true, watch the directories of the config files and reload when one of them changes
+     */
+    private synchronized void updateWatcher() {
+        if (!snapshot.getBoolean("configHotReload", false)) {
+            return;
+        }
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                WatchService service = watchService;
+                Thread watcher = new Thread(() -> watch(service), "config-watcher");
+                watcher.setDaemon(true);
+                watcher.start();
+            }
+            for (Path file : new Path[]{getConfigPath(), DEFAULT_CONFIG_PATH.toAbsolutePath()}) {
+                Path directory = file.getParent();
+                if (Files.isDirectory(directory) && !watchedDirectories.contains(directory)) {
+                    directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY);
+                    watchedDirectories.add(directory);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Config hot reload is not available: " + e.getMessage());
+        }
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path) {
+                        Path file = directory.resolve((Path) event.context());
+                        changed |= file.equals(getConfigPath()) || file.equals(DEFAULT_CONFIG_PATH.toAbsolutePath());
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                    System.out.println("Configuration reloaded");
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the current configuration snapshot, e.g. to read several related values consistently
+     * @return Immutable snapshot
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
     /**
      * Get property value
      * @param key Property key
      * @return Property value or null if not found
      */
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return snapshot.get(key, null);
     }
 
     /**
@@ -89,7 +214,7 @@ public class ConfigManager {
      * @return Property value or default value if not found
      */
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return snapshot.get(key, defaultValue);
     }
 
     /**
@@ -99,15 +224,7 @@ public class ConfigManager {
      * @return Property value as integer or default value
      */
     public int getIntProperty(String key, int defaultValue) {
-        String value = properties.getProperty(key);
-        if (value == null) {
-            return defaultValue;
-        }
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        return snapshot.getInt(key, defaultValue);
     }
 
     /**
@@ -117,10 +234,78 @@ public class ConfigManager {
      * @return Property value as boolean or default value
      */
     public boolean getBooleanProperty(String key, boolean defaultValue) {
-        String value = properties.getProperty(key);
-        if (value == null) {
+        return snapshot.getBoolean(key, defaultValue);
+    }
+
+    /**
+     * Immutable view of the merged configuration with integer and boolean values parsed up front.
+     * Keys that no layer defines are looked up once in the environment.
+     */
+    public static final class Snapshot {
+        private final Map<String, String> values;
+        private final Map<String, Integer> intValues = new HashMap<>();
+        private final Map<String, Boolean> booleanValues = new HashMap<>();
+        private final Map<String, Optional<String>> environmentValues = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<String, String> values) {
+            this.values = Collections.unmodifiableMap(values);
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                try {
+                    intValues.put(entry.getKey(), Integer.parseInt(entry.getValue()));
+                } catch (NumberFormatException e) {
+                    // Not an integer; getInt returns the caller's default
+                }
+                booleanValues.put(entry.getKey(), Boolean.parseBoolean(entry.getValue()));
+            }
+        }
+
+        public String get(String key, String defaultValue) {
+            String value = values.get(key);
+            if (value == null) {
+                value = environmentValue(key);
+            }
+            return value != null ? value : defaultValue;
+        }
+
+        public int getInt(String key, int defaultValue) {
+            Integer value = intValues.get(key);
+            if (value != null) {
+                return value;
+            }
+            String environmentValue = values.containsKey(key) ? null : environmentValue(key);
+            if (environmentValue != null) {
+                try {
+                    return Integer.parseInt(environmentValue);
+                } catch (NumberFormatException e) {
+                    // Not an integer; return the caller's default
+                }
+            }
             return defaultValue;
         }
-        return Boolean.parseBoolean(value);
+
+        public boolean getBoolean(String key, boolean defaultValue) {
+            Boolean value = booleanValues.get(key);
+            if (value != null) {
+                return value;
+            }
+            String environmentValue = environmentValue(key);
+            return environmentValue != null ? Boolean.parseBoolean(environmentValue) : defaultValue;
+        }
+
+        private String environmentValue(String key) {
+            if (key == null) {
+                return null;
+            }
+            return environmentValues.computeIfAbsent(key,
+                    k -> Optional.ofNullable(System.getenv(toEnvironmentName(k)))).orElse(null);
+        }
+
+        /**
+         * Get all keys and values
+         * @return Unmodifiable map of the merged configuration
+         */
+        public Map<String, String> asMap() {
+            return values;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drop-in replacements for the ExpectedConditions used by the page objects.
+ * Under a {@link DomWait} each condition is evaluated inside the browser and the wait blocks in a single
+ * async script call that is woken up by a MutationObserver; under any other wait it is polled like the
+ * ExpectedConditions equivalent.
+ */
+public class DomConditions {
+    // Locator strategies the in-page helper can evaluate
+    private static final Set<String> SUPPORTED_STRATEGIES = new HashSet<>(Arrays.asList(
+            "id", "name", "class name", "tag name", "css selector", "xpath"));
+
+    /**
+     * JavaScript function returning the first element matching a locator spec, or null
+     */
+    public static final String FIND_FIRST_FUNCTION =
+            "function(spec) {"
+            + "  var v = spec.value;"
+            + "  switch (spec.using) {"
+            + "    case 'id': return document.getElementById(v);"
+            + "    case 'name': return document.querySelector('[name=\"' + CSS.escape(v) + '\"]');"
+            + "    case 'class name': return document.getElementsByClassName(v)[0] || null;"
+            + "    case 'tag name': return document.getElementsByTagName(v)[0] || null;"
+            + "    case 'xpath': return document.evaluate(v, document, null,"
+            + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "    default: return document.querySelector(v);"
+            + "  }"
+            + "}";
+
+    /**
+     * JavaScript function approximating WebElement.isDisplayed for an element or null
+     */
+    public static final String IS_DISPLAYED_FUNCTION =
+            "function(el) {"
+            + "  if (!el || !el.isConnected || el.getClientRects().length === 0) return false;"
+            + "  if (el.checkVisibility) return el.checkVisibility({opacityProperty: true, visibilityProperty: true});"
+            + "  var style = getComputedStyle(el);"
+            + "  return style.visibility !== 'hidden' && style.opacity !== '0';"
+            + "}";
+
+    /**
+     * An element matching the locator is present in the DOM
+     * @param locator Element locator
+     * @return Condition returning the element
+     */
+    public static DomCondition<WebElement> presenceOfElementLocated(By locator) {
+        return new DomCondition<>("present", locator, ExpectedConditions.presenceOfElementLocated(locator));
+    }
+
+    /**
+     * The first element matching the locator is displayed
+     * @param locator Element locator
+     * @return Condition returning the element
+     */
+    public static DomCondition<WebElement> visibilityOfElementLocated(By locator) {
+        return new DomCondition<>("visible", locator, ExpectedConditions.visibilityOfElementLocated(locator));
+    }
+
+    /**
+     * The first element matching the locator is displayed and enabled
+     * @param locator Element locator
+     * @return Condition returning the element
+     */
+    public static DomCondition<WebElement> elementToBeClickable(By locator) {
+        return new DomCondition<>("clickable", locator, ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    /**
+     * No element matching the locator is displayed
+     * @param locator Element locator
+     * @return Condition returning true
+     */
+    public static DomCondition<Boolean> invisibilityOfElementLocated(By locator) {
+        return new DomCondition<>("invisible", locator, ExpectedConditions.invisibilityOfElementLocated(locator));
+    }
+
+    /**
+     * The document has finished loading (document.readyState is "complete")
+     * @return Condition returning true
+     */
+    public static DomCondition<Boolean> documentReady() {
+        ExpectedCondition<Boolean> polling = driver ->
+                "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+        return new DomCondition<>("ready", null, polling);
+    }
+
+    /**
+     * Convert a locator to the spec understood by {@link #FIND_FIRST_FUNCTION}
+     * @param locator Element locator
+     * @return Map with "using" and "value", or null if the locator cannot be evaluated in the browser
+     */
+    public static Map<String, Object> toLocatorSpec(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        if (!SUPPORTED_STRATEGIES.contains(parameters.using())) {
+            return null;
+        }
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("using", parameters.using());
+        spec.put("value", String.valueOf(parameters.value()));
+        return spec;
+    }
+
+    /**
+     * Condition that can be evaluated in the browser, with a polling fallback
+     * @param <T> Type of the value the condition returns
+     */
+    public static class DomCondition<T> implements ExpectedCondition<T> {
+        private final String type;
+        private final By locator;
+        private final ExpectedCondition<T> polling;
+
+        DomCondition(String type, By locator, ExpectedCondition<T> polling) {
+            this.type = type;
+            this.locator = locator;
+            this.polling = polling;
+        }
+
+        /**
+         * Get the condition as understood by the in-page helper
+         * @return Condition spec, or null if the locator cannot be evaluated in the browser
+         */
+        Map<String, Object> toSpec() {
+            Map<String, Object> spec = locator != null ? toLocatorSpec(locator) : new HashMap<>();
+            if (spec != null) {
+                spec.put("type", type);
+            }
+            return spec;
+        }
+
+        @Override
+        public T apply(WebDriver driver) {
+            return polling.apply(driver);
+        }
+
+        @Override
+        public String toString() {
+            return polling.toString();
+        }
+    }
+}
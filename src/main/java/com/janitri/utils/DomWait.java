@@ -0,0 +1,182 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * WebDriverWait that evaluates {@link DomConditions} inside the browser.
+ * A helper script is installed once per page; it keeps a single MutationObserver (plus readystatechange
+ * and load listeners) and completes a pending async script call as soon as the condition matches,
+ * so a wait costs one round-trip instead of one per 500 ms poll.
+ * Other conditions, and locators the helper cannot evaluate, are polled as usual.
+ */
+public class DomWait extends WebDriverWait {
+    private static final ConfigManager configManager = ConfigManager.getInstance();
+    private static final Duration FALLBACK_POLLING = Duration.ofMillis(100);
+    private static final long SCRIPT_TIMEOUT_MARGIN_MILLIS = 1000;
+    private static final long RETRY_DELAY_MILLIS = 50;
+    private static final String TIMED_OUT = "__timeout__";
+    private static final String ERROR_KEY = "__error__";
+
+    private static final String HELPER =
+            "window.__janitriDomWait = (function() {"
+            + "  var waiters = [], observer = null, interval = null, scheduled = false;"
+            + "  var first = " + DomConditions.FIND_FIRST_FUNCTION + ";"
+            + "  var visible = " + DomConditions.IS_DISPLAYED_FUNCTION + ";"
+            + "  function check(spec) {"
+            + "    if (spec.type === 'ready') return document.readyState === 'complete' ? true : undefined;"
+            + "    var el = first(spec);"
+            + "    switch (spec.type) {"
+            + "      case 'present': return el || undefined;"
+            + "      case 'visible': return visible(el) ? el : undefined;"
+            + "      case 'clickable': return visible(el) && !el.disabled ? el : undefined;"
+            + "      case 'invisible': return visible(el) ? undefined : true;"
+            + "    }"
+            + "  }"
+            + "  function finish(waiter, result) {"
+            + "    waiters.splice(waiters.indexOf(waiter), 1);"
+            + "    clearTimeout(waiter.timer);"
+            + "    if (!waiters.length) stop();"
+            + "    waiter.done(result);"
+            + "  }"
+            + "  function run() {"
+            + "    scheduled = false;"
+            + "    waiters.slice().forEach(function(waiter) {"
+            + "      var result;"
+            + "      try { result = check(waiter.spec); } catch (e) { result = {'" + ERROR_KEY + "': String(e)}; }"
+            + "      if (result !== undefined) finish(waiter, result);"
+            + "    });"
+            + "  }"
+            + "  function schedule() {"
+            + "    if (!scheduled) { scheduled = true; Promise.resolve().then(run); }"
+            + "  }"
+            + "  function start() {"
+            + "    if (observer) return;"
+            + "    observer = new MutationObserver(schedule);"
+            + "    observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "    document.addEventListener('readystatechange', schedule);"
+            + "    window.addEventListener('load', schedule);"
+            // Style changes from stylesheets and transitions do not mutate the DOM
+            + "    interval = setInterval(schedule, 250);"
+            + "  }"
+            + "  function stop() {"
+            + "    if (!observer) return;"
+            + "    observer.disconnect();"
+            + "    observer = null;"
+            + "    document.removeEventListener('readystatechange', schedule);"
+            + "    window.removeEventListener('load', schedule);"
+            + "    clearInterval(interval);"
+            + "  }"
+            + "  return {"
+            + "    wait: function(spec, timeoutMillis, done) {"
+            + "      var result;"
+            + "      try { result = check(spec); } catch (e) { return done({'" + ERROR_KEY + "': String(e)}); }"
+            + "      if (result !== undefined) return done(result);"
+            + "      var waiter = {spec: spec, done: done};"
+            + "      waiter.timer = setTimeout(function() { finish(waiter, '" + TIMED_OUT + "'); }, timeoutMillis);"
+            + "      waiters.push(waiter);"
+            + "      start();"
+            + "    }"
+            + "  };"
+            + "})();";
+
+    private static final String WAIT_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "if (!window.__janitriDomWait) {" + HELPER + "}"
+            + "window.__janitriDomWait.wait(arguments[0], arguments[1], done);";
+
+    // Statistics
+    private static final LongAdder eventDrivenWaits = new LongAdder();
+    private static final LongAdder pollingWaits = new LongAdder();
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    /**
+     * Constructor for DomWait
+     * @param driver WebDriver instance
+     * @param timeout How long to wait for a condition
+     */
+    public DomWait(WebDriver driver, Duration timeout) {
+        super(driver, timeout, FALLBACK_POLLING);
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        Map<String, Object> spec = isTrue instanceof DomConditions.DomCondition
+                ? ((DomConditions.DomCondition<?>) isTrue).toSpec()
+                : null;
+        if (spec == null || !(driver instanceof JavascriptExecutor)) {
+            pollingWaits.increment();
+            return super.until(isTrue);
+        }
+
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        long scriptBudget = Math.max(SCRIPT_TIMEOUT_MARGIN_MILLIS,
+                configManager.getIntProperty("scriptTimeout", 30000) - SCRIPT_TIMEOUT_MARGIN_MILLIS);
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        WebDriverException lastException = null;
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw timeoutException("Expected condition failed: waiting for " + isTrue
+                        + " (tried for " + timeout.getSeconds() + " second(s))", lastException);
+            }
+
+            Object result;
+            try {
+                result = js.executeAsyncScript(WAIT_SCRIPT, spec, Math.min(remaining, scriptBudget));
+            } catch (JavascriptException | StaleElementReferenceException e) {
+                // The page navigated away or was still being replaced; try again in the new document.
+                // Session-level failures such as NoSuchSessionException propagate immediately.
+                lastException = e;
+                sleepQuietly(RETRY_DELAY_MILLIS);
+                continue;
+            }
+
+            if (result instanceof Map && ((Map<?, ?>) result).containsKey(ERROR_KEY)) {
+                // Let the polling condition raise the matching Selenium error
+                pollingWaits.increment();
+                return super.until(isTrue);
+            }
+            if (!TIMED_OUT.equals(result)) {
+                eventDrivenWaits.increment();
+                return (V) result;
+            }
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Record how many waits were event-driven in the report and reset the counters
+     * @param reportManager ReportManager to record metrics in
+     */
+    public static void recordMetrics(ReportManager reportManager) {
+        long eventDriven = eventDrivenWaits.sumThenReset();
+        long polling = pollingWaits.sumThenReset();
+        if (eventDriven + polling == 0) {
+            return;
+        }
+        reportManager.addFrameworkMetric("Event-driven waits",
+                eventDriven + " of " + (eventDriven + polling) + " (" + polling + " polled)");
+    }
+}
@@ -0,0 +1,215 @@
+package com.janitri.utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves browser driver binaries once per JVM.
+ * The resolved path and version are persisted to a cache file so that later runs skip
+ * WebDriverManager entirely while the cached binary still exists.
+ */
+public class DriverBinaryResolver {
+    private static final ConfigManager configManager = ConfigManager.getInstance();
+    private static final String DEFAULT_CACHE_FILE = ".driver-cache/driver-resolution.properties";
+    private static final Map<String, ResolvedDriver> resolvedDrivers = new ConcurrentHashMap<>();
+
+    // Statistics
+    private static final LongAdder skippedResolutions = new LongAdder();
+    private static final LongAdder savedMillis = new LongAdder();
+    private static final LongAdder resolutionMillis = new LongAdder();
+
+    /**
+     * Make sure the driver binary for a browser is resolved and exported as a system property
+     * @param browser Browser name (chrome, firefox or edge)
+     */
+    public static void resolve(String browser) {
+        ResolvedDriver existing = resolvedDrivers.get(browser);
+        if (existing != null) {
+            recordSkippedResolution(existing);
+            return;
+        }
+        resolvedDrivers.computeIfAbsent(browser, DriverBinaryResolver::resolveUncached);
+    }
+
+    /**
+     * Resolve a driver from the cache file, falling back to WebDriverManager when online
+     * @param browser Browser name
+     * @return Resolved driver
+     */
+    private static ResolvedDriver resolveUncached(String browser) {
+        boolean offline = configManager.getBooleanProperty("driverOfflineMode", false);
+        long ttlMillis = TimeUnit.HOURS.toMillis(configManager.getIntProperty("driverCacheTtlHours", 24));
+
+        ResolvedDriver cached = readCacheEntry(browser);
+        if (cached != null && Files.isExecutable(Paths.get(cached.path))
+                && (offline || System.currentTimeMillis() - cached.resolvedAt <= ttlMillis)) {
+            System.setProperty(systemPropertyFor(browser), cached.path);
+            recordSkippedResolution(cached);
+            return cached;
+        }
+
+        if (offline) {
+            String configuredPath = System.getProperty(systemPropertyFor(browser));
+            if (configuredPath != null && Files.isExecutable(Paths.get(configuredPath))) {
+                return new ResolvedDriver(configuredPath, "unknown", 0, System.currentTimeMillis());
+            }
+            throw new IllegalStateException("Offline mode is enabled but no cached " + browser
+                    + " driver was found in " + getCacheFile() + ". Run once online or set "
+                    + systemPropertyFor(browser) + ".");
+        }
+
+        long start = System.currentTimeMillis();
+        WebDriverManager manager = managerFor(browser);
+        manager.setup();
+        long elapsed = System.currentTimeMillis() - start;
+        resolutionMillis.add(elapsed);
+
+        ResolvedDriver resolved = new ResolvedDriver(manager.getDownloadedDriverPath(),
+                manager.getDownloadedDriverVersion(), elapsed, System.currentTimeMillis());
+        if (resolved.path != null) {
+            writeCacheEntry(browser, resolved);
+        }
+        return resolved;
+    }
+
+    private static void recordSkippedResolution(ResolvedDriver driver) {
+        skippedResolutions.increment();
+        savedMillis.add(driver.resolveMillis);
+    }
+
+    /**
+     * Get the WebDriverManager for a browser
+     * @param browser Browser name
+     * @return WebDriverManager instance
+     */
+    private static WebDriverManager managerFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            case "chrome":
+            default:
+                return WebDriverManager.chromedriver();
+        }
+    }
+
+    /**
+     * Get the Selenium system property that points at a browser's driver binary
+     * @param browser Browser name
+     * @return System property name
+     */
+    private static String systemPropertyFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            case "chrome":
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+
+    private static Path getCacheFile() {
+        return Paths.get(configManager.getProperty("driverCacheFile", DEFAULT_CACHE_FILE));
+    }
+
+    /**
+     * Read a browser's entry from the cache file
+     * @param browser Browser name
+     * @return Cached driver or null if there is no usable entry
+     */
+    private static ResolvedDriver readCacheEntry(String browser) {
+        Properties cache = loadCache();
+        String path = cache.getProperty(browser + ".path");
+        if (path == null) {
+            return null;
+        }
+        try {
+            return new ResolvedDriver(path,
+                    cache.getProperty(browser + ".version", "unknown"),
+                    Long.parseLong(cache.getProperty(browser + ".resolveMillis", "0")),
+                    Long.parseLong(cache.getProperty(browser + ".resolvedAt", "0")));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Write a browser's entry to the cache file, replacing the file atomically
+     * @param browser Browser name
+     * @param driver Resolved driver
+     */
+    private static synchronized void writeCacheEntry(String browser, ResolvedDriver driver) {
+        Path cacheFile = getCacheFile();
+        Properties cache = loadCache();
+        cache.setProperty(browser + ".path", driver.path);
+        cache.setProperty(browser + ".version", driver.version != null ? driver.version : "unknown");
+        cache.setProperty(browser + ".resolveMillis", String.valueOf(driver.resolveMillis));
+        cache.setProperty(browser + ".resolvedAt", String.valueOf(driver.resolvedAt));
+        try {
+            Path parent = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, "driver-resolution", ".tmp");
+            try (OutputStream output = Files.newOutputStream(tempFile)) {
+                cache.store(output, "Resolved WebDriver binaries");
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to write driver resolution cache: " + e.getMessage());
+        }
+    }
+
+    private static Properties loadCache() {
+        Properties cache = new Properties();
+        Path cacheFile = getCacheFile();
+        if (Files.exists(cacheFile)) {
+            try (InputStream input = Files.newInputStream(cacheFile)) {
+                cache.load(input);
+            } catch (IOException e) {
+                System.err.println("Failed to read driver resolution cache: " + e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Record driver resolution statistics in the report
+     * @param reportManager ReportManager to record metrics in
+     */
+    public static void recordMetrics(ReportManager reportManager) {
+        reportManager.addFrameworkMetric("Driver resolutions skipped", String.valueOf(skippedResolutions.sum()));
+        reportManager.addFrameworkMetric("Driver startup time saved",
+                "~" + savedMillis.sum() + " ms (WebDriverManager time spent: " + resolutionMillis.sum() + " ms)");
+    }
+
+    /**
+     * Resolved driver binary together with the time its resolution originally took
+     */
+    private static class ResolvedDriver {
+        private final String path;
+        private final String version;
+        private final long resolveMillis;
+        private final long resolvedAt;
+
+        ResolvedDriver(String path, String version, long resolveMillis, long resolvedAt) {
+            this.path = path;
+            this.version = version;
+            this.resolveMillis = resolveMillis;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+}
@@ -1,34 +1,422 @@
 package com.janitri.utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.interactions.Interactive;
 import org.openqa.selenium.safari.SafariDriver;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Factory class for creating WebDriver instances
  */
 public class DriverFactory {
     private static final ConfigManager configManager = ConfigManager.getInstance();
+    private static final ThreadLocal<WebDriver> threadDrivers = new ThreadLocal<>();
+    private static final WebDriver THREAD_BOUND_DRIVER = createThreadBoundDriver();
+    private static final ThreadLocal<BrowserContextManager.IsolatedContext> threadContexts = new ThreadLocal<>();
+    private static final Map<WebDriver, NetworkRecorder> networkRecorders =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Set<WebDriver> throttledDrivers = ConcurrentHashMap.newKeySet();
+    private static final Set<WebDriver> blockingDrivers = ConcurrentHashMap.newKeySet();
+    private static volatile DriverPool driverPool;
+    private static volatile BrowserContextManager contextManager;
+    private static volatile boolean contextIsolationUnsupported;
+    private static volatile int minimumPoolSize;
 
     /**
-     * Create a WebDriver instance based on configuration
+     * Acquire a driver for the current thread, reusing a pooled session when pooling is enabled.
+     * The driver stays bound to the calling thread until {@link #releaseDriver()} is called.
      * 
-     * @param headless2
-     * @param browser2
      * @return WebDriver instance
      */
-    public static WebDriver createDriver(String browser2, boolean headless2) {
-        String browser = configManager.getProperty("browser", "chrome").toLowerCase();
-        boolean headless = configManager.getBooleanProperty("headless", false);
-        int timeout = configManager.getIntProperty("timeout", 10);
+    public static WebDriver acquireDriver() {
+        WebDriver driver = threadDrivers.get();
+        if (driver == null) {
+            BrowserContextManager contextManager = getContextManager();
+            if (contextManager != null) {
+                BrowserContextManager.IsolatedContext context = contextManager.open();
+                threadContexts.set(context);
+                driver = context.getDriver();
+            } else {
+                driver = getDriverPool().checkout();
+            }
+            threadDrivers.set(driver);
+            prepareNetworkRecorder(driver);
+        }
+        return driver;
+    }
+
+    /**
+     * Get the network recorder for the current thread's driver, attaching one on first use.
+     * A recorder attached here only sees traffic from this point on, so callers usually reload the page.
+     * 
+     * @return NetworkRecorder instance, or null if the browser is not Chromium-based
+     */
+    public static NetworkRecorder getNetworkRecorder() {
+        WebDriver driver = getDriver();
+        if (!(driver instanceof HasCdp)) {
+            return null;
+        }
+        synchronized (networkRecorders) {
+            NetworkRecorder recorder = networkRecorders.get(driver);
+            if (recorder == null) {
+                recorder = NetworkRecorder.attach(driver,
+                        configManager.getIntProperty("networkCaptureMaxEntries", 2000));
+                if (recorder != null) {
+                    networkRecorders.put(driver, recorder);
+                }
+            } else {
+                recorder.followWindow(driver.getWindowHandle());
+            }
+            return recorder;
+        }
+    }
+
+    /**
+     * Apply network throttling to the current thread's driver.
+     * Throttled runs also disable the HTTP cache so timings reflect a cold load.
+     * The throttling is removed again when the driver is released.
+     * 
+     * @param profile Network profile to apply
+     * @return true if the profile was applied, false if the browser does not support throttling
+     */
+    public static boolean applyNetworkProfile(NetworkProfile profile) {
+        NetworkRecorder recorder = getNetworkRecorder();
+        if (recorder == null) {
+            return profile == NetworkProfile.NONE;
+        }
+        recorder.sendCommand("Network.emulateNetworkConditions", profile.toEmulationParams());
+        Map<String, Object> cacheParams = new HashMap<>();
+        cacheParams.put("cacheDisabled", profile != NetworkProfile.NONE);
+        recorder.sendCommand("Network.setCacheDisabled", cacheParams);
+        if (profile == NetworkProfile.NONE) {
+            throttledDrivers.remove(getDriver());
+        } else {
+            throttledDrivers.add(getDriver());
+        }
+        return true;
+    }
+
+    /**
+     * Block the configured non-essential URL patterns on the current thread's driver.
+     * Blocking is removed again when the driver is released.
+     * 
+     * @return true if blocking was applied, false if the browser does not support it
+     */
+    public static boolean applyRequestBlocking() {
+        NetworkRecorder recorder = getNetworkRecorder();
+        if (recorder == null) {
+            return false;
+        }
+        RequestBlocker.block(recorder);
+        blockingDrivers.add(getDriver());
+        return true;
+    }
+
+    /**
+     * Record how long the current thread's navigation took, for request blocking statistics
+     * 
+     * @param navigationMillis Time from navigation start until the page was loaded
+     */
+    public static void recordNavigation(long navigationMillis) {
+        WebDriver driver = getDriver();
+        RequestBlocker.recordNavigation(networkRecorders.get(driver), blockingDrivers.contains(driver),
+                navigationMillis);
+    }
+
+    /**
+     * Clear traffic left over from a previous test and attach a recorder up front when networkCapture is enabled
+     * 
+     * @param driver Driver that was just bound to the current thread
+     */
+    private static void prepareNetworkRecorder(WebDriver driver) {
+        NetworkRecorder existing = networkRecorders.get(driver);
+        if (existing != null) {
+            existing.clear();
+        }
+        if (existing != null || configManager.getBooleanProperty("networkCapture", false)) {
+            getNetworkRecorder();
+        }
+    }
+
+    /**
+     * Get the driver bound to the current thread
+     * 
+     * @return WebDriver instance
+     * @throws IllegalStateException if no driver has been acquired on this thread
+     */
+    public static WebDriver getDriver() {
+        WebDriver driver = threadDrivers.get();
+        if (driver == null) {
+            throw new IllegalStateException("No WebDriver acquired on thread " + Thread.currentThread().getName());
+        }
+        return driver;
+    }
+
+    /**
+     * Release the driver bound to the current thread.
+     * Pooled sessions are reset and kept; in pass-through mode the driver is quit.
+     */
+    public static void releaseDriver() {
+        WebDriver driver = threadDrivers.get();
+        BrowserContextManager.IsolatedContext context = threadContexts.get();
+        if (driver != null && throttledDrivers.contains(driver)) {
+            try {
+                applyNetworkProfile(NetworkProfile.NONE);
+            } catch (Exception e) {
+                System.err.println("Failed to remove network throttling: " + e.getMessage());
+            }
+        }
+        if (driver != null && blockingDrivers.remove(driver)) {
+            try {
+                RequestBlocker.unblock(getNetworkRecorder());
+            } catch (Exception e) {
+                System.err.println("Failed to remove request blocking: " + e.getMessage());
+            }
+        }
+        threadDrivers.remove();
+        threadContexts.remove();
+        if (context != null) {
+            getContextManager().close(context);
+        } else if (driver != null) {
+            getDriverPool().release(driver);
+        }
+    }
+
+    /**
+     * Get the browser context manager when browserIsolation=context is configured for a Chromium browser
+     * 
+     * @return BrowserContextManager instance, or null when each test gets its own browser process
+     */
+    private static BrowserContextManager getContextManager() {
+        if (contextManager == null) {
+            if (contextIsolationUnsupported
+                    || !"context".equalsIgnoreCase(configManager.getProperty("browserIsolation", "process"))) {
+                return null;
+            }
+            synchronized (DriverFactory.class) {
+                if (contextManager == null) {
+                    String browser = configManager.getProperty("browser", "chrome").toLowerCase();
+                    if (!browser.equals("chrome") && !browser.equals("edge")) {
+                        System.err.println("browserIsolation=context requires Chrome or Edge; using a browser process per test.");
+                        contextIsolationUnsupported = true;
+                        return null;
+                    }
+                    boolean headless = configManager.getBooleanProperty("headless", false);
+                    contextManager = new BrowserContextManager(() -> createDriver(browser, headless), headless);
+                }
+            }
+        }
+        return contextManager;
+    }
+
+    /**
+     * Get a driver handle that always delegates to the driver bound to the calling thread.
+     * Test classes can keep the handle in a field that is shared between parallel test methods.
+     * 
+     * @return Thread-bound WebDriver handle
+     */
+    public static WebDriver getThreadBoundDriver() {
+        return THREAD_BOUND_DRIVER;
+    }
+
+    /**
+     * Make sure the driver pool is created with room for at least the given number of sessions,
+     * e.g. one per parallel worker thread
+     * 
+     * @param sessions Minimum number of sessions
+     */
+    public static void reservePoolCapacity(int sessions) {
+        minimumPoolSize = Math.max(minimumPoolSize, sessions);
+        DriverPool pool = driverPool;
+        if (pool != null && pool.getMaxSize() < sessions) {
+            System.err.println("Driver pool already created with " + pool.getMaxSize()
+                    + " sessions; " + sessions + " parallel workers will wait for free drivers.");
+        }
+    }
+
+    /**
+     * Check whether the suite runs several workers in parallel
+     * 
+     * @return true if pool capacity was reserved for more than one worker
+     */
+    public static boolean isParallelRun() {
+        return minimumPoolSize > 1;
+    }
+
+    /**
+     * Start headless sessions in the background that already have the base URL loaded.
+     * Does nothing when prewarmSessions is 0, in pass-through or context isolation mode,
+     * or if the pool is already warming.
+     */
+    public static void prewarmSessions() {
+        int count = configManager.getIntProperty("prewarmSessions", 0);
+        if (count <= 0 || getContextManager() != null) {
+            return;
+        }
+        String browser = configManager.getProperty("browser", "chrome");
+        boolean headless = configManager.getBooleanProperty("prewarmHeadless", true)
+                || configManager.getBooleanProperty("headless", false);
+        String baseUrl = configManager.getProperty("baseUrl", "https://dev-dash.janitri.in/");
+        getDriverPool().prewarm(count,
+                () -> createDriver(browser, headless),
+                driver -> {
+                    driver.get(baseUrl);
+                    TestUtils.waitForPageLoad(driver);
+                },
+                baseUrl);
+    }
+
+    /**
+     * Get and clear the URL the current thread's driver was pre-loaded with during pre-warming
+     * 
+     * @return Pre-loaded URL, or null if the driver starts on a blank page
+     */
+    public static String takePreloadedUrl() {
+        return getDriverPool().takePreloadedUrl(threadDrivers.get());
+    }
+
+    /**
+     * Get the shared driver pool, creating it from configuration on first use
+     * 
+     * @return DriverPool instance
+     */
+    public static DriverPool getDriverPool() {
+        if (driverPool == null) {
+            synchronized (DriverFactory.class) {
+                if (driverPool == null) {
+                    String browser = configManager.getProperty("browser", "chrome");
+                    boolean headless = configManager.getBooleanProperty("headless", false);
+                    boolean passThrough = "passthrough".equalsIgnoreCase(
+                            configManager.getProperty("driverPoolMode", "pooled"));
+                    driverPool = new DriverPool(
+                            () -> createDriver(browser, headless),
+                            passThrough,
+                            Math.max(configManager.getIntProperty("driverPoolMaxSize", 4), minimumPoolSize),
+                            configManager.getIntProperty("driverPoolIdleTimeoutSeconds", 300),
+                            configManager.getIntProperty("driverPoolCheckoutTimeoutSeconds", 120));
+                }
+            }
+        }
+        return driverPool;
+    }
+
+    /**
+     * Shut down the driver pool and context host browsers, record their statistics in the report
+     * and quit idle sessions
+     */
+    public static void shutdown() {
+        DriverPool pool;
+        BrowserContextManager contexts;
+        synchronized (DriverFactory.class) {
+            pool = driverPool;
+            contexts = contextManager;
+            driverPool = null;
+            contextManager = null;
+        }
+        ReportManager reportManager = ReportManager.getInstance();
+        CommandProfiler.recordMetrics(reportManager, configManager.getIntProperty("commandProfilingTopN", 10));
+        CommandProfiler.reset();
+        WaitStrategy.recordMetrics(reportManager);
+        DomWait.recordMetrics(reportManager);
+        InteractionMode.recordMetrics(reportManager);
+        RequestBlocker.recordMetrics(reportManager);
+        DriverBinaryResolver.recordMetrics(reportManager);
+        if (contexts != null) {
+            reportManager.addFrameworkMetric("Browser contexts opened", String.format(
+                    "%d on %d browser processes (avg %.0f ms per context)",
+                    contexts.getContextsOpened(), contexts.getHostsLaunched(), contexts.getAverageOpenMillis()));
+            contexts.shutdown();
+        }
+        if (pool == null) {
+            return;
+        }
+        reportManager.addFrameworkMetric("Driver pool mode", pool.isPassThrough() ? "pass-through" : "pooled");
+        reportManager.addFrameworkMetric("Driver pool hit rate", String.format("%.1f%% (%d hits, %d launches)",
+                pool.getHitRate() * 100, pool.getHits(), pool.getMisses()));
+        reportManager.addFrameworkMetric("Driver checkout latency", String.format("avg %.0f ms, max %.0f ms",
+                pool.getAverageCheckoutMillis(), pool.getMaxCheckoutMillis()));
+        reportManager.addFrameworkMetric("Pre-warmed sessions used",
+                pool.getWarmHits() + " of " + pool.getWarmSessions());
+        reportManager.addFrameworkMetric("Driver sessions evicted/discarded",
+                pool.getEvictions() + "/" + pool.getDiscarded());
+        pool.shutdown();
+    }
+
+    /**
+     * Create a proxy that forwards every call to the driver bound to the calling thread
+     * 
+     * @return WebDriver proxy
+     */
+    private static WebDriver createThreadBoundDriver() {
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return args != null && args.length == 1 && proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    WebDriver bound = threadDrivers.get();
+                    return "ThreadBoundDriver(" + (bound != null ? bound : "unbound") + ")";
+                case "getWrappedDriver":
+                    return getDriver();
+                default:
+                    try {
+                        return method.invoke(getDriver(), args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        };
+        return (WebDriver) Proxy.newProxyInstance(DriverFactory.class.getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class,
+                        HasCapabilities.class, Interactive.class, WrapsDriver.class},
+                handler);
+    }
+
+    /**
+     * Create a WebDriver instance; timeouts and device emulation are taken from configuration.
+     * With commandProfiling enabled the driver is wrapped so that the latency of every command is recorded.
+     * 
+     * @param browserName Browser to launch (chrome, firefox, edge or safari)
+     * @param headless Whether to run in headless mode
+     * @return WebDriver instance
+     */
+    public static WebDriver createDriver(String browserName, boolean headless) {
+        return createDriver(browserName, headless, configManager.getBooleanProperty("commandProfiling", false));
+    }
+
+    /**
+     * Create a WebDriver instance, choosing whether its commands are profiled regardless of configuration,
+     * e.g. for benchmarks that must not pay the profiler's per-command overhead
+     *
+     * @param browserName Browser to launch (chrome, firefox, edge or safari)
+     * @param headless Whether to run in headless mode
+     * @param profiled Whether to record the latency of every command
+     * @return WebDriver instance
+     */
+    public static WebDriver createDriver(String browserName, boolean headless, boolean profiled) {
+        String browser = browserName == null ? "chrome" : browserName.toLowerCase();
         int pageLoadTimeout = configManager.getIntProperty("pageLoadTimeout", 30000);
         int scriptTimeout = configManager.getIntProperty("scriptTimeout", 30000);
 
@@ -50,14 +438,19 @@ public class DriverFactory {
                 break;
         }
 
-        // Configure timeouts
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(timeout));
+        // Configure timeouts (no implicit wait unless waitStrategy=implicit)
+        driver.manage().timeouts().implicitlyWait(WaitStrategy.getImplicitWait());
         driver.manage().timeouts().pageLoadTimeout(Duration.ofMillis(pageLoadTimeout));
         driver.manage().timeouts().scriptTimeout(Duration.ofMillis(scriptTimeout));
 
         // Maximize window
         driver.manage().window().maximize();
 
+        // Record the latency of every command the tests send
+        if (profiled) {
+            driver = CommandProfiler.decorate(driver);
+        }
+
         return driver;
     }
 
@@ -68,7 +461,7 @@ public class DriverFactory {
      * @return ChromeDriver instance
      */
     private static WebDriver createChromeDriver(boolean headless) {
-        WebDriverManager.chromedriver().setup();
+        DriverBinaryResolver.resolve("chrome");
         ChromeOptions options = new ChromeOptions();
 
         // Configure Chrome options
@@ -102,7 +495,7 @@ public class DriverFactory {
      * @return FirefoxDriver instance
      */
     private static WebDriver createFirefoxDriver(boolean headless) {
-        WebDriverManager.firefoxdriver().setup();
+        DriverBinaryResolver.resolve("firefox");
         FirefoxOptions options = new FirefoxOptions();
 
         // Set headless mode if configured
@@ -122,7 +515,7 @@ public class DriverFactory {
      * @return EdgeDriver instance
      */
     private static WebDriver createEdgeDriver(boolean headless) {
-        WebDriverManager.edgedriver().setup();
+        DriverBinaryResolver.resolve("edge");
         EdgeOptions options = new EdgeOptions();
 
         // Configure Edge options
@@ -0,0 +1,473 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, thread-safe pool of WebDriver sessions.
+ * Sessions are reset between tests instead of being quit and relaunched.
+ * In pass-through mode every checkout creates a new driver and every release quits it.
+ */
+public class DriverPool {
+    private final Supplier<WebDriver> driverSupplier;
+    private final boolean passThrough;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long checkoutTimeoutMillis;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledSession> idleSessions = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService evictor;
+    private final AtomicInteger pendingWarmSessions = new AtomicInteger();
+    private final Map<WebDriver, String> preloadedUrls = new ConcurrentHashMap<>();
+    private volatile ExecutorService warmer;
+    private volatile boolean closed;
+
+    // Statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder warmSessions = new LongAdder();
+    private final LongAdder warmHits = new LongAdder();
+    private final LongAdder checkoutNanos = new LongAdder();
+    private final AtomicLong maxCheckoutNanos = new AtomicLong();
+
+    /**
+     * Constructor for DriverPool
+     * @param driverSupplier Supplier used to launch new sessions
+     * @param passThrough Whether to bypass pooling and launch a driver per checkout
+     * @param maxSize Maximum number of live sessions
+     * @param idleTimeoutSeconds Idle time after which a pooled session is quit
+     * @param checkoutTimeoutSeconds Maximum time to wait for a free session
+     */
+    public DriverPool(Supplier<WebDriver> driverSupplier, boolean passThrough, int maxSize,
+                      int idleTimeoutSeconds, int checkoutTimeoutSeconds) {
+        this.driverSupplier = driverSupplier;
+        this.passThrough = passThrough;
+        this.maxSize = Math.max(1, maxSize);
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(1, idleTimeoutSeconds));
+        this.checkoutTimeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(1, checkoutTimeoutSeconds));
+        this.permits = new Semaphore(this.maxSize, true);
+
+        if (passThrough) {
+            this.evictor = null;
+        } else {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "driver-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(5000, idleTimeoutMillis / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdleSessions, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Check out a driver, reusing an idle session when one is available
+     * @return WebDriver instance owned by the caller until released
+     */
+    public WebDriver checkout() {
+        if (closed) {
+            throw new IllegalStateException("Driver pool has been shut down");
+        }
+        long start = System.nanoTime();
+        try {
+            if (passThrough) {
+                misses.increment();
+                return driverSupplier.get();
+            }
+
+            if (!permits.tryAcquire(checkoutTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Timed out after " + checkoutTimeoutMillis
+                        + " ms waiting for a free driver (pool size " + maxSize + ")");
+            }
+
+            PooledSession session = idleSessions.pollFirst();
+            // Prefer waiting for a session that is already starting over launching another one
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(checkoutTimeoutMillis);
+            while (session == null && pendingWarmSessions.get() > 0 && System.nanoTime() < deadline) {
+                session = idleSessions.pollFirst(100, TimeUnit.MILLISECONDS);
+            }
+            if (session != null) {
+                hits.increment();
+                if (session.preloadedUrl != null) {
+                    warmHits.increment();
+                    preloadedUrls.put(session.driver, session.preloadedUrl);
+                }
+                return session.driver;
+            }
+
+            misses.increment();
+            try {
+                return driverSupplier.get();
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free driver", e);
+        } finally {
+            recordCheckoutLatency(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Return a driver to the pool. The session is reset before it becomes available again;
+     * sessions that cannot be reset are quit.
+     * @param driver WebDriver instance previously checked out
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        if (passThrough) {
+            quietlyQuit(driver);
+            return;
+        }
+
+        preloadedUrls.remove(driver);
+        try {
+            if (closed || !resetSession(driver)) {
+                discarded.increment();
+                quietlyQuit(driver);
+            } else {
+                offerIdle(new PooledSession(driver, null));
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Start sessions in the background so that the first checkouts find them ready.
+     * Each session is launched and then passed to the loader (e.g. to open the base URL)
+     * before it joins the idle queue.
+     * @param count Number of sessions to start, capped at the pool size
+     * @param launcher Supplier used to launch the warm sessions
+     * @param loader Action run on each new session before it becomes available
+     * @param preloadedUrl URL the loader leaves the session on
+     */
+    public synchronized void prewarm(int count, Supplier<WebDriver> launcher, Consumer<WebDriver> loader,
+                                     String preloadedUrl) {
+        if (passThrough || closed || warmer != null || count <= 0) {
+            return;
+        }
+        int sessions = Math.min(count, maxSize);
+        warmer = Executors.newFixedThreadPool(Math.min(sessions, Runtime.getRuntime().availableProcessors()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "driver-pool-warmer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pendingWarmSessions.addAndGet(sessions);
+        for (int i = 0; i < sessions; i++) {
+            warmer.submit(() -> {
+                WebDriver driver = null;
+                try {
+                    driver = launcher.get();
+                    loader.accept(driver);
+                    if (closed) {
+                        quietlyQuit(driver);
+                    } else {
+                        warmSessions.increment();
+                        offerIdle(new PooledSession(driver, preloadedUrl));
+                    }
+                } catch (Exception e) {
+                    System.err.println("Failed to pre-warm driver session: " + e.getMessage());
+                    if (driver != null) {
+                        quietlyQuit(driver);
+                    }
+                } finally {
+                    pendingWarmSessions.decrementAndGet();
+                }
+            });
+        }
+        warmer.shutdown();
+    }
+
+    /**
+     * Get and clear the URL a freshly checked-out session was pre-loaded with
+     * @param driver WebDriver instance returned by {@link #checkout()}
+     * @return Pre-loaded URL, or null if the session starts on a blank page
+     */
+    public String takePreloadedUrl(WebDriver driver) {
+        return driver == null ? null : preloadedUrls.remove(driver);
+    }
+
+    /**
+     * Add a session to the idle queue, quitting it instead if the queue is already full
+     * @param session Session to keep
+     */
+    private void offerIdle(PooledSession session) {
+        if (idleSessions.size() >= maxSize) {
+            discarded.increment();
+            quietlyQuit(session.driver);
+        } else {
+            idleSessions.offerFirst(session);
+        }
+    }
+
+    /**
+     * Reset browser state so the next test starts from a clean session.
+     * Chromium drivers are reset over CDP; other drivers clear storage from the page and delete cookies
+     * through WebDriver.
+     * @param driver WebDriver instance to reset
+     * @return true if the session was reset, false if it is no longer usable
+     */
+    public static boolean resetSession(WebDriver driver) {
+        try {
+            if (!(driver instanceof HasCdp) || !clearBrowserData((HasCdp) driver, driver.getCurrentUrl())) {
+                clearPageData(driver);
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.err.println("Failed to reset driver session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Clear all cookies and the current origin's storage over CDP
+     * @param cdp Chromium driver
+     * @param url URL of the page the driver is on
+     * @return true if the data was cleared, false if a CDP command failed
+     */
+    private static boolean clearBrowserData(HasCdp cdp, String url) {
+        try {
+            cdp.executeCdpCommand("Network.clearBrowserCookies", new HashMap<>());
+            String origin = originOf(url);
+            if (origin != null) {
+                Map<String, Object> originParams = new HashMap<>();
+                originParams.put("origin", origin);
+                originParams.put("storageTypes", "all");
+                cdp.executeCdpCommand("Storage.clearDataForOrigin", originParams);
+
+                // Session storage belongs to the tab, which the pool reuses, not to the origin's stored data
+                Map<String, Object> storageId = new HashMap<>();
+                storageId.put("securityOrigin", origin);
+                storageId.put("isLocalStorage", false);
+                Map<String, Object> storageParams = new HashMap<>();
+                storageParams.put("storageId", storageId);
+                cdp.executeCdpCommand("DOMStorage.clear", storageParams);
+            }
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Clear storage from the page and delete the cookies WebDriver can see
+     * @param driver WebDriver instance to reset
+     */
+    private static void clearPageData(WebDriver driver) {
+        // Storage is scoped to the current origin, so clear it before leaving the page
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); } catch (e) {}"
+                    + "try { window.sessionStorage.clear(); } catch (e) {}");
+        } catch (Exception e) {
+            // Pages such as about:blank do not expose storage
+        }
+        driver.manage().deleteAllCookies();
+    }
+
+    /**
+     * Get the origin of an http(s) URL
+     * @param url Page URL
+     * @return Origin such as https://example.com:8443, or null for other URLs such as about:blank
+     */
+    private static String originOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = new URI(url);
+            if (uri.getHost() == null || !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+                return null;
+            }
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Quit idle sessions that have not been used within the idle timeout
+     */
+    private void evictIdleSessions() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        List<PooledSession> expired = new ArrayList<>();
+        Iterator<PooledSession> iterator = idleSessions.descendingIterator();
+        while (iterator.hasNext()) {
+            PooledSession session = iterator.next();
+            if (session.lastUsedMillis < cutoff && idleSessions.removeFirstOccurrence(session)) {
+                expired.add(session);
+            }
+        }
+        for (PooledSession session : expired) {
+            evictions.increment();
+            quietlyQuit(session.driver);
+        }
+    }
+
+    /**
+     * Quit all idle sessions and stop accepting checkouts.
+     * Drivers still checked out are quit when they are released.
+     */
+    public void shutdown() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        if (warmer != null) {
+            warmer.shutdownNow();
+        }
+        PooledSession session;
+        while ((session = idleSessions.pollFirst()) != null) {
+            quietlyQuit(session.driver);
+        }
+    }
+
+    private void recordCheckoutLatency(long nanos) {
+        checkoutNanos.add(nanos);
+        maxCheckoutNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static void quietlyQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Failed to quit driver: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the maximum number of live sessions
+     * @return Pool size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Check whether the pool is running in pass-through mode
+     * @return true if every checkout launches a new driver
+     */
+    public boolean isPassThrough() {
+        return passThrough;
+    }
+
+    /**
+     * Get the number of checkouts served from an idle session
+     * @return Hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of checkouts that launched a new driver
+     * @return Miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the fraction of checkouts served from an idle session
+     * @return Hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long total = getHits() + getMisses();
+        return total == 0 ? 0.0 : (double) getHits() / total;
+    }
+
+    /**
+     * Get the average time spent in checkout, including driver launches on a miss
+     * @return Average checkout latency in milliseconds
+     */
+    public double getAverageCheckoutMillis() {
+        long total = getHits() + getMisses();
+        return total == 0 ? 0.0 : checkoutNanos.sum() / (total * 1_000_000.0);
+    }
+
+    /**
+     * Get the slowest checkout observed
+     * @return Maximum checkout latency in milliseconds
+     */
+    public double getMaxCheckoutMillis() {
+        return maxCheckoutNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Get the number of sessions started by {@link #prewarm}
+     * @return Warm session count
+     */
+    public long getWarmSessions() {
+        return warmSessions.sum();
+    }
+
+    /**
+     * Get the number of checkouts served by a pre-warmed session
+     * @return Warm hit count
+     */
+    public long getWarmHits() {
+        return warmHits.sum();
+    }
+
+    /**
+     * Get the number of idle sessions quit by the evictor
+     * @return Eviction count
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the number of sessions quit because they could not be reset
+     * @return Discard count
+     */
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    /**
+     * Idle session together with the time it was returned to the pool
+     */
+    private static class PooledSession {
+        private final WebDriver driver;
+        private final String preloadedUrl;
+        private final long lastUsedMillis;
+
+        PooledSession(WebDriver driver, String preloadedUrl) {
+            this.driver = driver;
+            this.preloadedUrl = preloadedUrl;
+            this.lastUsedMillis = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides how TestUtils interaction helpers wait for the page to settle.
+ * In fast mode (interactionMode=fast, or auto in headless and parallel runs) scrolling waits in the browser
+ * until the element's position is stable across animation frames instead of sleeping for a fixed time,
+ * and elements are only highlighted when highlightElements=true. Legacy mode keeps the fixed pauses.
+ * The sleep time avoided is recorded per test.
+ */
+public class InteractionMode {
+    private static final ConfigManager configManager = ConfigManager.getInstance();
+
+    /** Fixed pause after scrolling in legacy mode */
+    static final long SCROLL_PAUSE_MS = 500;
+    /** How long a highlighted element stays highlighted */
+    static final long HIGHLIGHT_PAUSE_MS = 500;
+
+    // Scrolls the element into view, then resolves with the elapsed time once its position has been
+    // stable for two animation frames, a scrollend event fires, or the settle timeout passes
+    private static final String SCROLL_AND_SETTLE_SCRIPT =
+            "var element = arguments[0], maxWait = arguments[1], done = arguments[arguments.length - 1];"
+            + "var start = performance.now(), lastTop = null, stableFrames = 0, finished = false;"
+            + "function finish() {"
+            + "  if (finished) return;"
+            + "  finished = true;"
+            + "  document.removeEventListener('scrollend', finish, true);"
+            + "  done(performance.now() - start);"
+            + "}"
+            + "function check() {"
+            + "  if (finished) return;"
+            + "  var top = element.getBoundingClientRect().top;"
+            + "  stableFrames = top === lastTop ? stableFrames + 1 : 0;"
+            + "  lastTop = top;"
+            + "  if (stableFrames >= 2 || performance.now() - start > maxWait) { finish(); return; }"
+            + "  requestAnimationFrame(check);"
+            + "}"
+            + "document.addEventListener('scrollend', finish, true);"
+            + "element.scrollIntoView(true);"
+            + "requestAnimationFrame(check);"
+            + "setTimeout(finish, maxWait + 50);";
+
+    // Statistics
+    private static final Map<String, LongAdder> sleepAvoidedByTest = new ConcurrentHashMap<>();
+    private static final LongAdder settledScrolls = new LongAdder();
+    private static final LongAdder skippedHighlights = new LongAdder();
+
+    /**
+     * Check whether interaction helpers settle on browser conditions instead of fixed sleeps
+     * @return true for interactionMode=fast, or for auto in headless or parallel runs
+     */
+    public static boolean isFastMode() {
+        String mode = configManager.getProperty("interactionMode", "auto");
+        if ("fast".equalsIgnoreCase(mode)) {
+            return true;
+        }
+        if ("legacy".equalsIgnoreCase(mode)) {
+            return false;
+        }
+        return configManager.getBooleanProperty("headless", false) || DriverFactory.isParallelRun();
+    }
+
+    /**
+     * Check whether clicked elements are highlighted, a debugging aid that pauses on every click
+     * @return true if highlightElements=true
+     */
+    public static boolean isHighlightEnabled() {
+        return configManager.getBooleanProperty("highlightElements", false);
+    }
+
+    /**
+     * Scroll an element into view and wait until the scroll has settled
+     * @param driver WebDriver instance
+     * @param element Element to scroll to
+     */
+    public static void scrollIntoView(WebDriver driver, WebElement element) {
+        if (!isFastMode()) {
+            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
+            pause(SCROLL_PAUSE_MS);
+            return;
+        }
+
+        long maxWait = Math.min(SCROLL_PAUSE_MS * 2, configManager.getIntProperty("interactionSettleTimeoutMs", 1000));
+        try {
+            Object elapsed = ((JavascriptExecutor) driver).executeAsyncScript(SCROLL_AND_SETTLE_SCRIPT, element, maxWait);
+            long settledMs = elapsed instanceof Number ? ((Number) elapsed).longValue() : maxWait;
+            settledScrolls.increment();
+            recordSleepAvoided(SCROLL_PAUSE_MS - settledMs);
+        } catch (WebDriverException e) {
+            // Stale element or script failure: keep the legacy behaviour for this scroll
+            System.err.println("Scroll settling failed, pausing instead: " + e.getMessage());
+            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
+            pause(SCROLL_PAUSE_MS);
+        }
+    }
+
+    /**
+     * Record that a click went ahead without the highlight pause
+     */
+    static void recordSkippedHighlight() {
+        skippedHighlights.increment();
+        recordSleepAvoided(HIGHLIGHT_PAUSE_MS);
+    }
+
+    private static void recordSleepAvoided(long millis) {
+        if (millis > 0) {
+            sleepAvoidedByTest.computeIfAbsent(TestContext.currentTestName(), test -> new LongAdder()).add(millis);
+        }
+    }
+
+    static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Record the sleep time avoided per test in the report and reset the statistics
+     * @param reportManager ReportManager to record metrics in
+     */
+    public static void recordMetrics(ReportManager reportManager) {
+        long scrolls = settledScrolls.sumThenReset();
+        long highlights = skippedHighlights.sumThenReset();
+        if (sleepAvoidedByTest.isEmpty()) {
+            return;
+        }
+
+        List<String[]> rows = new ArrayList<>();
+        long totalMs = 0;
+        List<Map.Entry<String, LongAdder>> tests = new ArrayList<>(sleepAvoidedByTest.entrySet());
+        tests.sort(Comparator.comparingLong((Map.Entry<String, LongAdder> test) -> test.getValue().sum()).reversed());
+        for (Map.Entry<String, LongAdder> test : tests) {
+            long avoidedMs = test.getValue().sum();
+            totalMs += avoidedMs;
+            rows.add(new String[] {test.getKey(), String.valueOf(avoidedMs)});
+        }
+        sleepAvoidedByTest.clear();
+
+        reportManager.addFrameworkMetric("Interaction sleep avoided", String.format(
+                "%d ms (%d scrolls settled in the browser, %d highlight pauses skipped)", totalMs, scrolls, highlights));
+        reportManager.addFrameworkTable("Sleep Time Avoided per Test", new String[] {"Test", "Avoided (ms)"}, rows);
+    }
+}
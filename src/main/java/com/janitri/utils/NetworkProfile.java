@@ -0,0 +1,112 @@
+package com.janitri.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Named network conditions applied through DevTools Network.emulateNetworkConditions,
+ * each with its own performance thresholds.
+ * Thresholds can be overridden per profile with performanceThreshold.&lt;id&gt; and responseThreshold.&lt;id&gt;.
+ */
+public enum NetworkProfile {
+    NONE("none", 0, -1, -1, 3000, 1000),
+    THREE_G("3g", 563, 180 * 1024, 84 * 1024, 15000, 5000),
+    SLOW_4G("slow4g", 150, 200 * 1024, 94 * 1024, 8000, 2500),
+    HIGH_LATENCY("highLatency", 600, 1536 * 1024, 768 * 1024, 10000, 3000);
+
+    private final String id;
+    private final int latencyMillis;
+    private final int downloadBytesPerSecond;
+    private final int uploadBytesPerSecond;
+    private final int defaultPageLoadThreshold;
+    private final int defaultResponseThreshold;
+
+    NetworkProfile(String id, int latencyMillis, int downloadBytesPerSecond, int uploadBytesPerSecond,
+                   int defaultPageLoadThreshold, int defaultResponseThreshold) {
+        this.id = id;
+        this.latencyMillis = latencyMillis;
+        this.downloadBytesPerSecond = downloadBytesPerSecond;
+        this.uploadBytesPerSecond = uploadBytesPerSecond;
+        this.defaultPageLoadThreshold = defaultPageLoadThreshold;
+        this.defaultResponseThreshold = defaultResponseThreshold;
+    }
+
+    /**
+     * Find a profile by its ID
+     * @param id Profile ID, e.g. "3g" (case-insensitive)
+     * @return Matching profile
+     * @throws IllegalArgumentException if no profile has that ID
+     */
+    public static NetworkProfile fromId(String id) {
+        for (NetworkProfile profile : values()) {
+            if (profile.id.equalsIgnoreCase(id.trim())) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown network profile: " + id);
+    }
+
+    /**
+     * Parse a comma-separated list of profile IDs
+     * @param ids Profile IDs, e.g. "none,3g,slow4g"
+     * @return List of profiles
+     */
+    public static List<NetworkProfile> parseList(String ids) {
+        List<NetworkProfile> profiles = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (!id.trim().isEmpty()) {
+                profiles.add(fromId(id));
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Build the parameters for Network.emulateNetworkConditions
+     * @return DevTools command parameters
+     */
+    public Map<String, Object> toEmulationParams() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("offline", false);
+        params.put("latency", latencyMillis);
+        params.put("downloadThroughput", downloadBytesPerSecond);
+        params.put("uploadThroughput", uploadBytesPerSecond);
+        return params;
+    }
+
+    /**
+     * Get the page load threshold for this profile
+     * @param configManager ConfigManager to read overrides from
+     * @return Threshold in milliseconds
+     */
+    public int getPageLoadThreshold(ConfigManager configManager) {
+        int fallback = this == NONE
+                ? configManager.getIntProperty("performanceThreshold", defaultPageLoadThreshold)
+                : defaultPageLoadThreshold;
+        return configManager.getIntProperty("performanceThreshold." + id, fallback);
+    }
+
+    /**
+     * Get the threshold for individual phases (server response, download, DOM processing)
+     * @param configManager ConfigManager to read overrides from
+     * @return Threshold in milliseconds
+     */
+    public int getResponseThreshold(ConfigManager configManager) {
+        return configManager.getIntProperty("responseThreshold." + id, defaultResponseThreshold);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -0,0 +1,415 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Records network traffic of a Chromium browser through the DevTools Network domain.
+ * Request, response and completion events are folded into one {@link NetworkEntry} per request
+ * and kept in a bounded in-memory buffer; the oldest entries are dropped when it is full.
+ */
+public class NetworkRecorder {
+    private final DevTools devTools;
+    private final int maxEntries;
+    private final LinkedHashMap<String, NetworkEntry> entries;
+    private String windowHandle;
+    private long droppedEntries;
+
+    /**
+     * Constructor for NetworkRecorder
+     * @param devTools DevTools connection of the browser to record
+     * @param maxEntries Maximum number of requests kept in the buffer
+     */
+    private NetworkRecorder(DevTools devTools, int maxEntries) {
+        this.devTools = devTools;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<String, NetworkEntry>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, NetworkEntry> eldest) {
+                if (size() > NetworkRecorder.this.maxEntries) {
+                    droppedEntries++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Attach a recorder to a driver's current window
+     * @param driver WebDriver instance; must support DevTools
+     * @param maxEntries Maximum number of requests kept in the buffer
+     * @return NetworkRecorder instance, or null if the driver does not support DevTools
+     */
+    public static NetworkRecorder attach(WebDriver driver, int maxEntries) {
+        if (!(driver instanceof HasDevTools)) {
+            return null;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            NetworkRecorder recorder = new NetworkRecorder(devTools, maxEntries);
+            recorder.addListener("Network.requestWillBeSent", recorder::onRequestWillBeSent);
+            recorder.addListener("Network.responseReceived", recorder::onResponseReceived);
+            recorder.addListener("Network.loadingFinished", recorder::onLoadingFinished);
+            recorder.addListener("Network.loadingFailed", recorder::onLoadingFailed);
+            recorder.followWindow(driver.getWindowHandle());
+            return recorder;
+        } catch (Exception e) {
+            System.err.println("Failed to attach network recorder: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Make sure the recorder listens to the given window, reconnecting if the driver switched windows
+     * @param handle Window handle the driver is currently on
+     */
+    public synchronized void followWindow(String handle) {
+        if (handle.equals(windowHandle)) {
+            return;
+        }
+        devTools.createSession(handle);
+        devTools.send(new Command<>("Network.enable", new HashMap<>()));
+        windowHandle = handle;
+    }
+
+    /**
+     * Send a raw DevTools command on the recorder's session
+     * @param method DevTools method name, e.g. Network.setBlockedURLs
+     * @param params Command parameters
+     */
+    public void sendCommand(String method, Map<String, Object> params) {
+        devTools.send(new Command<>(method, params));
+    }
+
+    private void addListener(String method, Consumer<Map<String, Object>> handler) {
+        devTools.addListener(new Event<Map<String, Object>>(method, input -> input.read(Json.MAP_TYPE)), handler);
+    }
+
+    // Event handlers
+
+    @SuppressWarnings("unchecked")
+    private synchronized void onRequestWillBeSent(Map<String, Object> event) {
+        String requestId = (String) event.get("requestId");
+        Map<String, Object> request = (Map<String, Object>) event.get("request");
+        NetworkEntry entry = new NetworkEntry(requestId);
+        entry.url = (String) request.get("url");
+        entry.method = (String) request.get("method");
+        entry.resourceType = (String) event.get("type");
+        entry.requestHeaders = toHeaderMap(request.get("headers"));
+        entry.startTimestamp = toDouble(event.get("timestamp"));
+        // A redirect reuses the request ID, so the final hop replaces the earlier one
+        entries.remove(requestId);
+        entries.put(requestId, entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void onResponseReceived(Map<String, Object> event) {
+        NetworkEntry entry = entries.get((String) event.get("requestId"));
+        if (entry == null) {
+            return;
+        }
+        Map<String, Object> response = (Map<String, Object>) event.get("response");
+        entry.status = (int) toDouble(response.get("status"));
+        entry.mimeType = (String) response.get("mimeType");
+        entry.protocol = (String) response.get("protocol");
+        entry.fromCache = Boolean.TRUE.equals(response.get("fromDiskCache"));
+        entry.responseHeaders = toHeaderMap(response.get("headers"));
+        entry.responseTimestamp = toDouble(event.get("timestamp"));
+
+        Object timing = response.get("timing");
+        if (timing instanceof Map) {
+            Map<String, Object> timings = (Map<String, Object>) timing;
+            entry.dnsMillis = span(timings, "dnsStart", "dnsEnd");
+            entry.connectMillis = span(timings, "connectStart", "connectEnd");
+            entry.sslMillis = span(timings, "sslStart", "sslEnd");
+            entry.waitingMillis = span(timings, "sendEnd", "receiveHeadersEnd");
+        }
+    }
+
+    private synchronized void onLoadingFinished(Map<String, Object> event) {
+        NetworkEntry entry = entries.get((String) event.get("requestId"));
+        if (entry == null) {
+            return;
+        }
+        entry.encodedBytes = (long) toDouble(event.get("encodedDataLength"));
+        entry.endTimestamp = toDouble(event.get("timestamp"));
+        entry.finished = true;
+    }
+
+    private synchronized void onLoadingFailed(Map<String, Object> event) {
+        NetworkEntry entry = entries.get((String) event.get("requestId"));
+        if (entry == null) {
+            return;
+        }
+        entry.endTimestamp = toDouble(event.get("timestamp"));
+        entry.errorText = (String) event.get("errorText");
+        entry.blockedReason = (String) event.get("blockedReason");
+        entry.finished = true;
+    }
+
+    // Query API
+
+    /**
+     * Get a copy of all recorded requests in the order they were sent
+     * @return List of network entries
+     */
+    public synchronized List<NetworkEntry> getEntries() {
+        List<NetworkEntry> copy = new ArrayList<>(entries.size());
+        for (NetworkEntry entry : entries.values()) {
+            copy.add(entry.copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Get recorded requests matching a condition
+     * @param condition Condition to match
+     * @return List of matching network entries
+     */
+    public List<NetworkEntry> find(Predicate<NetworkEntry> condition) {
+        List<NetworkEntry> matches = new ArrayList<>();
+        for (NetworkEntry entry : getEntries()) {
+            if (condition.test(entry)) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Get the most recent top-level document request
+     * @return Document entry, if one was recorded
+     */
+    public Optional<NetworkEntry> getMainDocument() {
+        List<NetworkEntry> documents = find(entry -> "Document".equals(entry.getResourceType()));
+        return documents.isEmpty() ? Optional.empty() : Optional.of(documents.get(documents.size() - 1));
+    }
+
+    /**
+     * Get the total number of bytes transferred for completed requests
+     * @return Encoded bytes received
+     */
+    public synchronized long getTotalEncodedBytes() {
+        long total = 0;
+        for (NetworkEntry entry : entries.values()) {
+            total += entry.encodedBytes;
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of entries dropped because the buffer was full
+     * @return Dropped entry count
+     */
+    public synchronized long getDroppedEntries() {
+        return droppedEntries;
+    }
+
+    /**
+     * Discard all recorded requests
+     */
+    public synchronized void clear() {
+        entries.clear();
+        droppedEntries = 0;
+    }
+
+    // Helpers
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> toHeaderMap(Object headers) {
+        Map<String, String> result = new HashMap<>();
+        if (headers instanceof Map) {
+            for (Map.Entry<String, Object> header : ((Map<String, Object>) headers).entrySet()) {
+                result.put(header.getKey().toLowerCase(Locale.ROOT), String.valueOf(header.getValue()));
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static double span(Map<String, Object> timings, String startKey, String endKey) {
+        double start = toDouble(timings.get(startKey));
+        double end = toDouble(timings.get(endKey));
+        return start >= 0 && end >= start ? end - start : 0;
+    }
+
+    /**
+     * A single request with its response headers, timings and size
+     */
+    public static class NetworkEntry {
+        private final String requestId;
+        private String url;
+        private String method;
+        private String resourceType;
+        private String mimeType;
+        private String protocol;
+        private int status;
+        private boolean fromCache;
+        private boolean finished;
+        private String errorText;
+        private String blockedReason;
+        private Map<String, String> requestHeaders = Collections.emptyMap();
+        private Map<String, String> responseHeaders = Collections.emptyMap();
+        private double startTimestamp;
+        private double responseTimestamp;
+        private double endTimestamp;
+        private double dnsMillis;
+        private double connectMillis;
+        private double sslMillis;
+        private double waitingMillis;
+        private long encodedBytes;
+
+        NetworkEntry(String requestId) {
+            this.requestId = requestId;
+        }
+
+        NetworkEntry copy() {
+            NetworkEntry copy = new NetworkEntry(requestId);
+            copy.url = url;
+            copy.method = method;
+            copy.resourceType = resourceType;
+            copy.mimeType = mimeType;
+            copy.protocol = protocol;
+            copy.status = status;
+            copy.fromCache = fromCache;
+            copy.finished = finished;
+            copy.errorText = errorText;
+            copy.blockedReason = blockedReason;
+            copy.requestHeaders = requestHeaders;
+            copy.responseHeaders = responseHeaders;
+            copy.startTimestamp = startTimestamp;
+            copy.responseTimestamp = responseTimestamp;
+            copy.endTimestamp = endTimestamp;
+            copy.dnsMillis = dnsMillis;
+            copy.connectMillis = connectMillis;
+            copy.sslMillis = sslMillis;
+            copy.waitingMillis = waitingMillis;
+            copy.encodedBytes = encodedBytes;
+            return copy;
+        }
+
+        public String getRequestId() {
+            return requestId;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getResourceType() {
+            return resourceType;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public String getProtocol() {
+            return protocol;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public boolean isFromCache() {
+            return fromCache;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+
+        public boolean isFailed() {
+            return errorText != null;
+        }
+
+        public String getErrorText() {
+            return errorText;
+        }
+
+        public String getBlockedReason() {
+            return blockedReason;
+        }
+
+        public Map<String, String> getRequestHeaders() {
+            return requestHeaders;
+        }
+
+        public Map<String, String> getResponseHeaders() {
+            return responseHeaders;
+        }
+
+        /**
+         * Get a response header by name, ignoring case
+         * @param name Header name
+         * @return Header value or null if not present
+         */
+        public String getResponseHeader(String name) {
+            return responseHeaders.get(name.toLowerCase(Locale.ROOT));
+        }
+
+        public double getDnsMillis() {
+            return dnsMillis;
+        }
+
+        public double getConnectMillis() {
+            return connectMillis;
+        }
+
+        public double getSslMillis() {
+            return sslMillis;
+        }
+
+        /**
+         * Get the time between sending the request and receiving the response headers
+         * @return Time to first byte in milliseconds
+         */
+        public double getWaitingMillis() {
+            return waitingMillis;
+        }
+
+        /**
+         * Get the time between receiving the response headers and the end of the body
+         * @return Download time in milliseconds
+         */
+        public double getDownloadMillis() {
+            return endTimestamp > 0 && responseTimestamp > 0 ? (endTimestamp - responseTimestamp) * 1000 : 0;
+        }
+
+        /**
+         * Get the time from sending the request to the end of the response body
+         * @return Total duration in milliseconds
+         */
+        public double getTotalMillis() {
+            return endTimestamp > 0 ? (endTimestamp - startTimestamp) * 1000 : 0;
+        }
+
+        public long getEncodedBytes() {
+            return encodedBytes;
+        }
+    }
+}
@@ -1,26 +1,162 @@
 package com.janitri.utils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestResult;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * Utility class for managing test reports in HTML and CSV formats.
+ * Each worker thread appends its results to its own JSON Lines shard under shards/&lt;reportRunId&gt;, one record
+ * per line stamped with the test's end time and flushed as the test finishes, so workers never wait for each other
+ * and a crashed run keeps every finished result. Failure screenshots are written in the background and their
+ * paths appended to the same shard as separate records. Generating the reports merges all shards of the run (from every suite, thread and forked
+ * JVM that shares the reportRunId) into one log ordered by timestamp and renders the reports by streaming over it.
  */
 public class ReportManager {
     private static final String DEFAULT_REPORT_DIR = "test-reports";
     private static final String DEFAULT_HTML_REPORT_FILE = "test-report.html";
     private static final String DEFAULT_CSV_REPORT_FILE = "test-report.csv";
+    private static final String DEFAULT_RESULTS_LOG_FILE = "test-results.jsonl";
+    private static final String SHARD_DIR = "shards";
+    private static final String PROCESS_ID = ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+    private static final int DEFAULT_VIRTUALIZE_THRESHOLD = 2000;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long SCREENSHOT_WAIT_SECONDS = 30;
     private static volatile ReportManager instance;
-    private final List<TestResult> testResults;
+
+    // Loads the data script once the page has rendered, then renders only the rows in view (plus a margin)
+    // at a fixed row height; a thumbnail is fetched when its screenshot link is hovered
+    private static final String VIRTUAL_TABLE_SCRIPT =
+            "(function () {\n" +
+            "  var ROW_HEIGHT = 28, OVERSCAN = 10, STATUS_CLASSES = {PASS: 'pass', FAIL: 'fail', SKIP: 'skip'};\n" +
+            "  var viewport = document.getElementById('results-viewport');\n" +
+            "  var container = document.getElementById('results-rows');\n" +
+            "  var textFilter = document.getElementById('filter-text');\n" +
+            "  var statusFilter = document.getElementById('filter-status');\n" +
+            "  var counter = document.getElementById('filter-count');\n" +
+            "  var preview = document.getElementById('screenshot-preview');\n" +
+            "  var data = [], rows = [], scheduled = false;\n" +
+            "  function cell(row, text, className) {\n" +
+            "    var span = document.createElement('span');\n" +
+            "    span.textContent = text;\n" +
+            "    span.title = text;\n" +
+            "    if (className) span.className = className;\n" +
+            "    row.appendChild(span);\n" +
+            "    return span;\n" +
+            "  }\n" +
+            "  function render() {\n" +
+            "    scheduled = false;\n" +
+            "    var first = Math.max(0, Math.floor(viewport.scrollTop / ROW_HEIGHT) - OVERSCAN);\n" +
+            "    var last = Math.min(rows.length,\n" +
+            "        Math.ceil((viewport.scrollTop + viewport.clientHeight) / ROW_HEIGHT) + OVERSCAN);\n" +
+            "    var fragment = document.createDocumentFragment();\n" +
+            "    for (var i = first; i < last; i++) {\n" +
+            "      var r = rows[i], row = document.createElement('div');\n" +
+            "      row.className = 'vrow';\n" +
+            "      row.style.top = (i * ROW_HEIGHT) + 'px';\n" +
+            "      cell(row, r[0]);\n" +
+            "      cell(row, r[1], STATUS_CLASSES[r[1]]);\n" +
+            "      cell(row, String(r[2]));\n" +
+            "      cell(row, r[3] >= 0 ? String(r[3]) : 'N/A');\n" +
+            "      cell(row, r[4]);\n" +
+            "      var shot = cell(row, r[5] ? '' : 'N/A');\n" +
+            "      if (r[5]) {\n" +
+            "        var link = document.createElement('a');\n" +
+            "        link.href = r[5];\n" +
+            "        link.textContent = 'Screenshot';\n" +
+            "        link.dataset.thumbnail = r[6] || r[5];\n" +
+            "        shot.appendChild(link);\n" +
+            "      }\n" +
+            "      cell(row, r[7] || 'N/A');\n" +
+            "      fragment.appendChild(row);\n" +
+            "    }\n" +
+            "    container.replaceChildren(fragment);\n" +
+            "  }\n" +
+            "  function schedule() {\n" +
+            "    if (!scheduled) {\n" +
+            "      scheduled = true;\n" +
+            "      requestAnimationFrame(render);\n" +
+            "    }\n" +
+            "  }\n" +
+            "  function applyFilter() {\n" +
+            "    var text = textFilter.value.toLowerCase(), status = statusFilter.value;\n" +
+            "    rows = data.filter(function (r) {\n" +
+            "      return (!status || r[1] === status)\n" +
+            "          && (!text || r[0].toLowerCase().indexOf(text) >= 0 || r[7].toLowerCase().indexOf(text) >= 0);\n" +
+            "    });\n" +
+            "    container.style.height = (rows.length * ROW_HEIGHT) + 'px';\n" +
+            "    counter.textContent = rows.length + ' of ' + data.length + ' results';\n" +
+            "    viewport.scrollTop = 0;\n" +
+            "    schedule();\n" +
+            "  }\n" +
+            "  container.addEventListener('mouseover', function (event) {\n" +
+            "    var link = event.target.closest('a[data-thumbnail]');\n" +
+            "    if (link) {\n" +
+            "      preview.src = link.dataset.thumbnail;\n" +
+            "      preview.style.display = 'block';\n" +
+            "    }\n" +
+            "  });\n" +
+            "  container.addEventListener('mouseout', function (event) {\n" +
+            "    if (event.target.closest('a[data-thumbnail]')) preview.style.display = 'none';\n" +
+            "  });\n" +
+            "  viewport.addEventListener('scroll', schedule);\n" +
+            "  textFilter.addEventListener('input', applyFilter);\n" +
+            "  statusFilter.addEventListener('change', applyFilter);\n" +
+            "  window.addEventListener('load', function () {\n" +
+            "    var script = document.createElement('script');\n" +
+            "    script.src = '%DATA_FILE%';\n" +
+            "    script.onload = function () {\n" +
+            "      data = window.reportData || [];\n" +
+            "      applyFilter();\n" +
+            "    };\n" +
+            "    script.onerror = function () {\n" +
+            "      counter.textContent = 'Could not load %DATA_FILE%';\n" +
+            "    };\n" +
+            "    document.body.appendChild(script);\n" +
+            "  });\n" +
+            "})();\n";
+    private final Path resultsLog;
+    private final Path shardDir;
+    private final String runId;
+    private final ThreadLocal<ResultShard> threadShards = new ThreadLocal<>();
+    private final Set<ResultShard> openShards = ConcurrentHashMap.newKeySet();
+    private final Set<CompletableFuture<Void>> pendingResults = ConcurrentHashMap.newKeySet();
+    private final AtomicLong resultSequence = new AtomicLong();
+    private volatile boolean initialized;
+    private final Map<String, String> frameworkMetrics;
+    private final Map<String, FrameworkTable> frameworkTables;
     private final ConfigManager configManager;
     private final String reportDir;
     private final String htmlReportFile;
@@ -31,10 +167,19 @@ public class ReportManager {
      */
     private ReportManager() {
         this.configManager = ConfigManager.getInstance();
-        this.reportDir = configManager.getIntProperty("reportDir", DEFAULT_REPORT_DIR);
-        this.htmlReportFile = configManager.getIntProperty("htmlReportFile", DEFAULT_HTML_REPORT_FILE);
-        this.csvReportFile = configManager.getIntProperty("csvReportFile", DEFAULT_CSV_REPORT_FILE);
-        this.testResults = new CopyOnWriteArrayList<>(); // Thread-safe list
+        this.reportDir = configManager.getProperty("reportDir", DEFAULT_REPORT_DIR);
+        this.htmlReportFile = configManager.getProperty("htmlReportFile", DEFAULT_HTML_REPORT_FILE);
+        this.csvReportFile = configManager.getProperty("csvReportFile", DEFAULT_CSV_REPORT_FILE);
+        this.resultsLog = Paths.get(reportDir,
+                configManager.getProperty("resultsLogFile", DEFAULT_RESULTS_LOG_FILE));
+        String runId = configManager.getProperty("reportRunId", "").trim();
+        if (runId.isEmpty()) {
+            runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + "_" + PROCESS_ID;
+        }
+        this.runId = runId.replaceAll("[^A-Za-z0-9._-]", "_");
+        this.shardDir = Paths.get(reportDir, SHARD_DIR, this.runId);
+        this.frameworkMetrics = new LinkedHashMap<>();
+        this.frameworkTables = new LinkedHashMap<>();
         createReportDirectory();
     }
 
@@ -68,6 +213,173 @@ public class ReportManager {
         }
     }
 
+    /**
+     * Get the id of this report run: reportRunId, shared by all JVMs of a build, or one id per JVM when it is empty.
+     *
+     * @return Run id, safe to use in file names
+     */
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * Get the current worker thread's shard, creating it on first use.
+     *
+     * @return Shard of the calling thread
+     */
+    private ResultShard currentShard() {
+        ResultShard shard = threadShards.get();
+        if (shard == null) {
+            Thread thread = Thread.currentThread();
+            String name = PROCESS_ID + "-" + thread.getId() + "-" + thread.getName().replaceAll("[^A-Za-z0-9._-]", "_");
+            shard = new ResultShard(shardDir.resolve(name + ".jsonl"));
+            threadShards.set(shard);
+        }
+        return shard;
+    }
+
+    /**
+     * Append a record to a shard and flush it.
+     *
+     * @param shard    Shard of the worker that ran the test
+     * @param testName Test the record belongs to
+     * @param record   Builds the JSON line
+     */
+    private void appendRecord(ResultShard shard, String testName, JsonRecord record) {
+        try {
+            openShards.add(shard);
+            shard.append(record.toJson());
+        } catch (IOException e) {
+            System.err.println("Failed to write result of " + testName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Supplier of a JSON line that may fail to serialize.
+     */
+    private interface JsonRecord {
+        String toJson() throws IOException;
+    }
+
+    /**
+     * Merge the shards of this run into the results log.
+     */
+    private void mergeShards() {
+        for (ResultShard shard : openShards) {
+            shard.close();
+        }
+        openShards.clear();
+        try {
+            Files.createDirectories(resultsLog.getParent());
+            List<Path> shards = ReportMerger.listShards(shardDir);
+            long records = ReportMerger.merge(shards, resultsLog);
+            addFrameworkMetric("Result shards merged", records + " results from " + shards.size() + " shards");
+        } catch (IOException e) {
+            System.err.println("Failed to merge result shards: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Add the results of this run to the test history and report the tests whose p50 or p95 duration
+     * regressed beyond historyRegressionTolerancePercent, and the tests that flip between passing and failing.
+     */
+    private void updateTestHistory() {
+        if (!configManager.getBooleanProperty("testHistory", true)) {
+            return;
+        }
+        int window = configManager.getIntProperty("historyWindow", 20);
+        int recentCount = configManager.getIntProperty("historyRecentExecutions", 5);
+        int tolerancePercent = configManager.getIntProperty("historyRegressionTolerancePercent", 25);
+        int minDeltaMs = configManager.getIntProperty("historyMinRegressionMs", 100);
+        int flakyFlips = configManager.getIntProperty("historyFlakyFlips", 2);
+        TestHistoryStore store = new TestHistoryStore(Paths.get(configManager.getProperty("historyDir", "test-history")));
+        try (Stream<TestResult> results = readResults()) {
+            ZoneId zone = ZoneId.systemDefault();
+            List<String> recorded = store.record(runId, results
+                    .map(result -> new TestHistoryStore.Execution(result.getTestName(), result.getStatus(),
+                            result.getDurationMs(), result.getTimestamp().atZone(zone).toInstant().toEpochMilli()))
+                    .iterator());
+
+            List<String[]> rows = new ArrayList<>();
+            int slower = 0;
+            int flaky = 0;
+            Set<String> testIds = new LinkedHashSet<>(recorded);
+            for (String testId : testIds) {
+                TestHistoryStore.TestTrend trend = store.analyze(testId, window, recentCount);
+                if (trend == null) {
+                    continue;
+                }
+                boolean isSlower = trend.isSlowerThanBaseline(tolerancePercent, minDeltaMs, recentCount);
+                boolean isFlaky = trend.isFlaky(flakyFlips);
+                if (!isSlower && !isFlaky) {
+                    continue;
+                }
+                slower += isSlower ? 1 : 0;
+                flaky += isFlaky ? 1 : 0;
+                rows.add(new String[]{
+                        testId,
+                        isSlower && isFlaky ? "SLOWER, FLAKY" : isSlower ? "SLOWER" : "FLAKY",
+                        trend.getRecentP50() + " / " + trend.getRecentP95(),
+                        trend.getBaselineP50() + " / " + trend.getBaselineP95(),
+                        (trend.isLastPassed() ? "PASS" : "FAIL") + " x" + trend.getStreak(),
+                        trend.getPassRate() + "% (" + trend.getFlips() + " flips in " + trend.getExecutions() + ")"
+                });
+            }
+            if (testIds.isEmpty()) {
+                return;
+            }
+            addFrameworkMetric("Test history", String.format(
+                    "%d executions of %d tests recorded; %d slower than their history, %d flaky",
+                    recorded.size(), testIds.size(), slower, flaky));
+            if (!rows.isEmpty()) {
+                addFrameworkTable("Test History Flags", new String[]{"Test", "Flag", "Recent p50 / p95 (ms)",
+                        "Baseline p50 / p95 (ms)", "Streak", "Pass Rate"}, rows);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to update test history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete shard directories of earlier runs that are older than reportShardRetentionHours.
+     */
+    private void deleteOldShards() {
+        Path shardRoot = shardDir.getParent();
+        if (!Files.isDirectory(shardRoot)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(
+                Duration.ofHours(configManager.getIntProperty("reportShardRetentionHours", 24)));
+        try (DirectoryStream<Path> runs = Files.newDirectoryStream(shardRoot)) {
+            for (Path run : runs) {
+                if (!run.equals(shardDir) && Files.getLastModifiedTime(run).toInstant().isBefore(cutoff)) {
+                    for (Path shard : ReportMerger.listShards(run)) {
+                        Files.deleteIfExists(shard);
+                    }
+                    Files.deleteIfExists(run);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to delete old result shards: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stream the results recorded in the log. The stream must be closed.
+     *
+     * @return Results in the order they were recorded
+     * @throws IOException if the log cannot be read
+     */
+    private Stream<TestResult> readResults() throws IOException {
+        if (!Files.exists(resultsLog)) {
+            return Stream.empty();
+        }
+        // A crash can leave a partial last line, which is skipped
+        return Files.lines(resultsLog, StandardCharsets.UTF_8)
+                .map(TestResult::fromJson)
+                .filter(Objects::nonNull);
+    }
+
     /**
      * Add test result to the report.
      *
@@ -77,13 +389,17 @@ public class ReportManager {
      */
     public void addTestResult(String testName, ITestResult result, WebDriver driver) {
         String status = getTestStatus(result);
-        String screenshotPath = "";
+        CompletableFuture<String> screenshot = CompletableFuture.completedFuture("");
 
-        // Take screenshot on failure if configured
+        // Take screenshot on failure if configured; the file is written in the background
         if (result.getStatus() == ITestResult.FAILURE &&
                 configManager.getBooleanProperty("takeScreenshotOnFailure", true) &&
                 driver != null) {
-            screenshotPath = TestUtils.takeScreenshot(driver, testName);
+            try {
+                screenshot = ScreenshotPipeline.capture(driver, testName);
+            } catch (Exception e) {
+                System.err.println("Failed to capture screenshot for " + testName + ": " + e.getMessage());
+            }
         }
 
         // Calculate test duration
@@ -95,14 +411,58 @@ public class ReportManager {
             errorMessage = result.getThrowable().getMessage() != null ? result.getThrowable().getMessage() : "";
         }
 
-        // Add test result to list
-        testResults.add(new TestResult(
-                testName,
-                status,
-                durationMs,
-                LocalDateTime.now(),
-                screenshotPath,
-                errorMessage));
+        // WebDriver round-trips made by the test so far (-1 if the test is not tracked)
+        TestContext context = TestContext.current();
+        long roundTrips = context != null ? context.getRoundTrips() : -1;
+
+        // Append the result to this worker's shard now, stamped with the test's end time, so that every shard
+        // stays in timestamp order. A failure screenshot is written in the background and its path appended to
+        // the same shard as a separate record, which merging applies to the result
+        long endMillis = result.getEndMillis() > 0 ? result.getEndMillis() : System.currentTimeMillis();
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(endMillis), ZoneId.systemDefault());
+        String resultId = PROCESS_ID + "-" + resultSequence.incrementAndGet();
+        TestResult record = new TestResult(testName, status, durationMs, timestamp, "", errorMessage, roundTrips);
+        ResultShard shard = currentShard();
+        appendRecord(shard, testName, () -> record.toJson(resultId));
+        if (screenshot.isDone() && "".equals(screenshot.getNow(""))) {
+            return;
+        }
+        CompletableFuture<Void> pending = screenshot
+                .exceptionally(e -> null)
+                .thenAccept(path -> {
+                    if (path != null && !path.isEmpty()) {
+                        appendRecord(shard, testName, () -> ReportMerger.screenshotRecord(resultId, path));
+                    }
+                });
+        pendingResults.add(pending);
+        pending.whenComplete((ignored, e) -> pendingResults.remove(pending));
+    }
+
+    /**
+     * Add a framework metric (driver pool statistics, time saved, etc.) to the report summary.
+     * A metric recorded again under the same name replaces the previous value.
+     *
+     * @param name  Metric name
+     * @param value Metric value
+     */
+    public void addFrameworkMetric(String name, String value) {
+        synchronized (frameworkMetrics) {
+            frameworkMetrics.put(name, value);
+        }
+    }
+
+    /**
+     * Add a framework table (e.g. the slowest WebDriver commands) to the report after the metrics.
+     * A table recorded again under the same title replaces the previous one.
+     *
+     * @param title   Table title
+     * @param headers Column headers
+     * @param rows    Rows, each with one value per header
+     */
+    public void addFrameworkTable(String title, String[] headers, List<String[]> rows) {
+        synchronized (frameworkMetrics) {
+            frameworkTables.put(title, new FrameworkTable(headers, new ArrayList<>(rows)));
+        }
     }
 
     /**
@@ -125,29 +485,61 @@ public class ReportManager {
     }
 
     /**
-     * Initialize reports by clearing previous results.
+     * Initialize reports for this run. Only the first call in a JVM does anything, so results of suites
+     * that run one after another in the same JVM are kept; shards of earlier runs are cleaned up.
      */
     public void initReports() {
-        testResults.clear();
+        synchronized (this) {
+            if (initialized) {
+                return;
+            }
+            initialized = true;
+        }
+        deleteOldShards();
+        synchronized (frameworkMetrics) {
+            frameworkMetrics.clear();
+            frameworkTables.clear();
+        }
     }
 
     /**
      * Generate both HTML and CSV reports.
      */
     public void generateReports() {
+        // Let pending screenshots land in the store and their results in the log
+        try {
+            CompletableFuture.allOf(pendingResults.toArray(new CompletableFuture<?>[0]))
+                    .get(SCREENSHOT_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println(pendingResults.size() + " results are still waiting for screenshots: " + e.getMessage());
+        }
+        mergeShards();
+        updateTestHistory();
+        ScreenshotStore.enforceSizeCap();
+        ScreenshotPipeline.recordMetrics(this);
+        ScreenshotStore.recordMetrics(this);
         generateHtmlReport();
         generateCsvReport();
     }
 
     /**
      * Generate HTML report for UI tests.
+     * Above htmlVirtualizeThreshold results, the rows go to a separate data script that the page loads
+     * after rendering and displays through a filtered, virtualized list.
      */
     public void generateHtmlReport() {
         Path reportPath = Paths.get(reportDir, htmlReportFile);
-        try (FileWriter writer = new FileWriter(reportPath.toString())) {
+        try (Writer writer = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8)) {
             writeHtmlHeader(writer);
-            writeReportSummary(writer);
-            writeTestResultsTable(writer);
+            int resultCount = writeReportSummary(writer);
+            writeFrameworkMetrics(writer);
+            if (resultCount > configManager.getIntProperty("htmlVirtualizeThreshold", DEFAULT_VIRTUALIZE_THRESHOLD)) {
+                String dataFile = htmlReportFile.replaceFirst("\\.html?$", "") + "-data.js";
+                writeResultsDataFile(Paths.get(reportDir, dataFile));
+                writeVirtualizedResults(writer, dataFile, resultCount);
+            } else {
+                writeTestResultsTable(writer);
+            }
             writer.write("</body>\n</html>\n");
             System.out.println("HTML report generated at: " + reportPath);
         } catch (IOException e) {
@@ -158,11 +550,11 @@ public class ReportManager {
     /**
      * Write HTML header for the report.
      *
-     * @param writer FileWriter to write to
+     * @param writer Writer to write to
      * @throws IOException if writing fails
      */
-    private void writeHtmlHeader(FileWriter writer) throws IOException {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+    private void writeHtmlHeader(Writer writer) throws IOException {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
         writer.write("<!DOCTYPE html>\n" +
                 "<html>\n" +
                 "<head>\n" +
@@ -186,89 +578,241 @@ public class ReportManager {
     /**
      * Write report summary to HTML.
      *
-     * @param writer FileWriter to write to
+     * @param writer Writer to write to
+     * @return Number of results
      * @throws IOException if writing fails
      */
-    private void writeReportSummary(FileWriter writer) throws IOException {
-        int passCount = 0, failCount = 0, skipCount = 0;
-        for (TestResult result : testResults) {
-            switch (result.getStatus()) {
-                case "PASS":
-                    passCount++;
-                    break;
-                case "FAIL":
-                    failCount++;
-                    break;
-                case "SKIP":
-                    skipCount++;
-                    break;
+    private int writeReportSummary(Writer writer) throws IOException {
+        int totalCount = 0, passCount = 0, failCount = 0, skipCount = 0;
+        try (Stream<TestResult> results = readResults()) {
+            for (TestResult result : (Iterable<TestResult>) results::iterator) {
+                totalCount++;
+                switch (result.getStatus()) {
+                    case "PASS":
+                        passCount++;
+                        break;
+                    case "FAIL":
+                        failCount++;
+                        break;
+                    case "SKIP":
+                        skipCount++;
+                        break;
+                }
             }
         }
 
         writer.write("<h2>Summary</h2>\n" +
-                "<p>Total Tests: " + testResults.size() + "</p>\n" +
+                "<p>Total Tests: " + totalCount + "</p>\n" +
                 "<p>Passed: " + passCount + "</p>\n" +
                 "<p>Failed: " + failCount + "</p>\n" +
                 "<p>Skipped: " + skipCount + "</p>\n");
+        return totalCount;
+    }
+
+    /**
+     * Write framework metrics to HTML and echo them to the console.
+     *
+     * @param writer Writer to write to
+     * @throws IOException if writing fails
+     */
+    private void writeFrameworkMetrics(Writer writer) throws IOException {
+        Map<String, String> metrics;
+        Map<String, FrameworkTable> tables;
+        synchronized (frameworkMetrics) {
+            metrics = new LinkedHashMap<>(frameworkMetrics);
+            tables = new LinkedHashMap<>(frameworkTables);
+        }
+
+        if (!metrics.isEmpty()) {
+            writer.write("<h2>Framework Metrics</h2>\n<table>\n");
+            for (Map.Entry<String, String> metric : metrics.entrySet()) {
+                writer.write("  <tr><th>" + metric.getKey() + "</th><td>" + metric.getValue() + "</td></tr>\n");
+                System.out.println("Framework Metric - " + metric.getKey() + ": " + metric.getValue());
+            }
+            writer.write("</table>\n");
+        }
+
+        for (Map.Entry<String, FrameworkTable> table : tables.entrySet()) {
+            writer.write("<h2>" + table.getKey() + "</h2>\n<table>\n  <tr>");
+            System.out.println(table.getKey() + ":");
+            for (String header : table.getValue().headers) {
+                writer.write("<th>" + header + "</th>");
+            }
+            writer.write("</tr>\n");
+            for (String[] row : table.getValue().rows) {
+                writer.write("  <tr>");
+                for (String value : row) {
+                    writer.write("<td>" + value + "</td>");
+                }
+                writer.write("</tr>\n");
+                System.out.println("  " + String.join(" | ", row));
+            }
+            writer.write("</table>\n");
+        }
+    }
+
+    /**
+     * Convert a path relative to the working directory into a link relative to the report directory.
+     *
+     * @param path File path
+     * @return Link usable from the HTML report
+     */
+    private String toReportLink(String path) {
+        Path reportDirPath = Paths.get(reportDir).toAbsolutePath().normalize();
+        return reportDirPath.relativize(Paths.get(path).toAbsolutePath().normalize()).toString().replace('\\', '/');
     }
 
     /**
      * Write test results table to HTML.
      *
-     * @param writer FileWriter to write to
+     * @param writer Writer to write to
      * @throws IOException if writing fails
      */
-    private void writeTestResultsTable(FileWriter writer) throws IOException {
+    private void writeTestResultsTable(Writer writer) throws IOException {
         writer.write("<h2>Test Results</h2>\n" +
                 "<table>\n" +
                 "  <tr>\n" +
                 "    <th>Test Name</th>\n" +
                 "    <th>Status</th>\n" +
                 "    <th>Duration (ms)</th>\n" +
+                "    <th>Round Trips</th>\n" +
                 "    <th>Timestamp</th>\n" +
                 "    <th>Screenshot</th>\n" +
                 "    <th>Error Message</th>\n" +
                 "  </tr>\n");
 
-        for (TestResult result : testResults) {
-            String screenshotLink = result.getScreenshotPath() != null && !result.getScreenshotPath().isEmpty()
-                    ? "<a href=\"" + result.getScreenshotPath() + "\">Screenshot</a>"
-                    : "N/A";
-            String errorMessage = result.getErrorMessage() != null && !result.getErrorMessage().isEmpty()
-                    ? result.getErrorMessage()
-                    : "N/A";
-            writer.write("<tr>\n" +
-                    "  <td>" + result.getTestName() + "</td>\n" +
-                    "  <td class=\"" + result.getStatus().toLowerCase() + "\">" + result.getStatus() + "</td>\n" +
-                    "  <td>" + result.getDurationMs() + "</td>\n" +
-                    "  <td>" + result.getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-                    + "</td>\n" +
-                    "  <td>" + screenshotLink + "</td>\n" +
-                    "  <td>" + errorMessage + "</td>\n" +
-                    "</tr>\n");
+        try (Stream<TestResult> results = readResults()) {
+            for (TestResult result : (Iterable<TestResult>) results::iterator) {
+                writeTestResultRow(writer, result);
+            }
         }
 
         writer.write("</table>\n");
     }
 
+    /**
+     * Write one test result row to HTML.
+     *
+     * @param writer Writer to write to
+     * @param result Test result
+     * @throws IOException if writing fails
+     */
+    private void writeTestResultRow(Writer writer, TestResult result) throws IOException {
+        String screenshotPath = result.getScreenshotPath();
+        String thumbnailPath = ScreenshotStore.getThumbnailPath(screenshotPath);
+        String screenshotLink = screenshotPath == null || screenshotPath.isEmpty() ? "N/A"
+                : thumbnailPath != null
+                ? "<a href=\"" + toReportLink(screenshotPath) + "\"><img src=\"" + toReportLink(thumbnailPath)
+                + "\" alt=\"Screenshot\"></a>"
+                : "<a href=\"" + toReportLink(screenshotPath) + "\">Screenshot</a>";
+        String errorMessage = result.getErrorMessage() != null && !result.getErrorMessage().isEmpty()
+                ? result.getErrorMessage()
+                : "N/A";
+        writer.write("<tr>\n" +
+                "  <td>" + result.getTestName() + "</td>\n" +
+                "  <td class=\"" + result.getStatus().toLowerCase() + "\">" + result.getStatus() + "</td>\n" +
+                "  <td>" + result.getDurationMs() + "</td>\n" +
+                "  <td>" + (result.getRoundTrips() >= 0 ? result.getRoundTrips() : "N/A") + "</td>\n" +
+                "  <td>" + result.getTimestamp().format(TIMESTAMP_FORMAT)
+                + "</td>\n" +
+                "  <td>" + screenshotLink + "</td>\n" +
+                "  <td>" + errorMessage + "</td>\n" +
+                "</tr>\n");
+    }
+
+    /**
+     * Write all results as a compact data script: one array per result with the test name, status, duration,
+     * round trips, timestamp, screenshot link, thumbnail link and error message.
+     *
+     * @param path Data script to write
+     * @throws IOException if writing fails
+     */
+    private void writeResultsDataFile(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("window.reportData = ");
+            try (JsonGenerator json = MAPPER.getFactory().createGenerator(writer);
+                    Stream<TestResult> results = readResults()) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.writeStartArray();
+                for (TestResult result : (Iterable<TestResult>) results::iterator) {
+                    String screenshotPath = result.getScreenshotPath();
+                    boolean hasScreenshot = screenshotPath != null && !screenshotPath.isEmpty();
+                    String thumbnailPath = hasScreenshot ? ScreenshotStore.getThumbnailPath(screenshotPath) : null;
+                    json.writeStartArray();
+                    json.writeString(result.getTestName());
+                    json.writeString(result.getStatus());
+                    json.writeNumber(result.getDurationMs());
+                    json.writeNumber(result.getRoundTrips());
+                    json.writeString(result.getTimestamp().format(TIMESTAMP_FORMAT));
+                    json.writeString(hasScreenshot ? toReportLink(screenshotPath) : "");
+                    json.writeString(thumbnailPath != null ? toReportLink(thumbnailPath) : "");
+                    json.writeString(result.getErrorMessage() != null ? result.getErrorMessage() : "");
+                    json.writeEndArray();
+                    json.writeRaw('\n');
+                }
+                json.writeEndArray();
+            }
+            writer.write(";\n");
+        }
+    }
+
+    /**
+     * Write the results section, which loads the data script after the page has rendered and shows
+     * only the rows in view, with a text and status filter and screenshots previewed on hover.
+     *
+     * @param writer      Writer to write to
+     * @param dataFile    Data script file name, relative to the report
+     * @param resultCount Number of results
+     * @throws IOException if writing fails
+     */
+    private void writeVirtualizedResults(Writer writer, String dataFile, int resultCount) throws IOException {
+        writer.write("<h2>Test Results</h2>\n" +
+                "<style>\n" +
+                "  #results-filter { margin-bottom: 8px; }\n" +
+                "  .vrow { display: grid; grid-template-columns: 3fr 70px 110px 100px 160px 100px 4fr;" +
+                " height: 28px; line-height: 28px; border-bottom: 1px solid #ddd; }\n" +
+                "  .vrow span { padding: 0 8px; overflow: hidden; white-space: nowrap; text-overflow: ellipsis; }\n" +
+                "  .vhead { font-weight: bold; background-color: #f2f2f2; }\n" +
+                "  #results-viewport { height: 600px; overflow-y: auto; position: relative; border: 1px solid #ddd; }\n" +
+                "  #results-rows { position: relative; }\n" +
+                "  #results-rows .vrow { position: absolute; left: 0; right: 0; }\n" +
+                "  #screenshot-preview { position: fixed; right: 20px; bottom: 20px; max-width: 320px;" +
+                " border: 1px solid #999; display: none; background: #fff; }\n" +
+                "</style>\n" +
+                "<div id=\"results-filter\">\n" +
+                "  <input id=\"filter-text\" type=\"search\" placeholder=\"Filter by test or error\">\n" +
+                "  <select id=\"filter-status\"><option value=\"\">All</option><option>PASS</option>" +
+                "<option>FAIL</option><option>SKIP</option></select>\n" +
+                "  <span id=\"filter-count\">Loading " + resultCount + " results...</span>\n" +
+                "</div>\n" +
+                "<div class=\"vrow vhead\"><span>Test Name</span><span>Status</span><span>Duration (ms)</span>" +
+                "<span>Round Trips</span><span>Timestamp</span><span>Screenshot</span><span>Error Message</span></div>\n" +
+                "<div id=\"results-viewport\"><div id=\"results-rows\"></div></div>\n" +
+                "<img id=\"screenshot-preview\" alt=\"Screenshot preview\">\n" +
+                "<script>\n" + VIRTUAL_TABLE_SCRIPT.replace("%DATA_FILE%", dataFile) + "</script>\n");
+    }
+
     /**
      * Generate CSV report for UI tests.
      */
     public void generateCsvReport() {
         Path reportPath = Paths.get(reportDir, csvReportFile);
-        try (FileWriter writer = new FileWriter(reportPath.toString())) {
-            writer.write("Test Name,Status,Duration (ms),Timestamp,Screenshot,Error Message\n");
-            for (TestResult result : testResults) {
-                String screenshotPath = result.getScreenshotPath() != null ? result.getScreenshotPath() : "";
-                String errorMessage = result.getErrorMessage() != null ? result.getErrorMessage().replace("\"", "\"\"")
-                        : "";
-                writer.write(String.format("%s,%s,%d,%s,%s,\"%s\"\n",
-                        result.getTestName(),
-                        result.getStatus(),
-                        result.getDurationMs(),
-                        result.getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                        screenshotPath,
-                        errorMessage));
+        try (Writer writer = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8)) {
+            writer.write("Test Name,Status,Duration (ms),Timestamp,Screenshot,Error Message,Round Trips\n");
+            try (Stream<TestResult> results = readResults()) {
+                for (TestResult result : (Iterable<TestResult>) results::iterator) {
+                    String screenshotPath = result.getScreenshotPath() != null ? result.getScreenshotPath() : "";
+                    String errorMessage = result.getErrorMessage() != null
+                            ? result.getErrorMessage().replace("\"", "\"\"") : "";
+                    writer.write(String.format("%s,%s,%d,%s,%s,\"%s\",%s\n",
+                            result.getTestName(),
+                            result.getStatus(),
+                            result.getDurationMs(),
+                            result.getTimestamp().format(TIMESTAMP_FORMAT),
+                            screenshotPath,
+                            errorMessage,
+                            result.getRoundTrips() >= 0 ? String.valueOf(result.getRoundTrips()) : ""));
+                }
             }
             System.out.println("CSV report generated at: " + reportPath);
         } catch (IOException e) {
@@ -286,15 +830,62 @@ public class ReportManager {
         private final LocalDateTime timestamp;
         private final String screenshotPath;
         private final String errorMessage;
+        private final long roundTrips;
 
         public TestResult(String testName, String status, long durationMs,
-                LocalDateTime timestamp, String screenshotPath, String errorMessage) {
+                LocalDateTime timestamp, String screenshotPath, String errorMessage, long roundTrips) {
             this.testName = testName;
             this.status = status;
             this.durationMs = durationMs;
             this.timestamp = timestamp;
             this.screenshotPath = screenshotPath;
             this.errorMessage = errorMessage;
+            this.roundTrips = roundTrips;
+        }
+
+        /**
+         * Serialize the result as a single line of JSON.
+         *
+         * @param resultId Id that screenshot records refer to
+         * @return JSON object without line breaks
+         * @throws IOException if serialization fails
+         */
+        String toJson(String resultId) throws IOException {
+            ObjectNode node = MAPPER.createObjectNode();
+            node.put("resultId", resultId);
+            node.put("testName", testName);
+            node.put("status", status);
+            node.put("durationMs", durationMs);
+            node.put("timestamp", timestamp.toString());
+            node.put("screenshot", screenshotPath);
+            node.put("errorMessage", errorMessage);
+            node.put("roundTrips", roundTrips);
+            return MAPPER.writeValueAsString(node);
+        }
+
+        /**
+         * Parse a line of the results log.
+         *
+         * @param line JSON line
+         * @return Test result, or null if the line is incomplete or malformed
+         */
+        static TestResult fromJson(String line) {
+            try {
+                JsonNode node = MAPPER.readTree(line);
+                if (node == null || !node.hasNonNull("testName")) {
+                    return null;
+                }
+                return new TestResult(
+                        node.get("testName").asText(),
+                        node.path("status").asText("UNKNOWN"),
+                        node.path("durationMs").asLong(),
+                        LocalDateTime.parse(node.path("timestamp").asText()),
+                        node.path("screenshot").asText(""),
+                        node.path("errorMessage").asText(""),
+                        node.path("roundTrips").asLong(-1));
+            } catch (Exception e) {
+                return null;
+            }
         }
 
         public String getTestName() {
@@ -320,5 +911,57 @@ public class ReportManager {
         public String getErrorMessage() {
             return errorMessage;
         }
+
+        public long getRoundTrips() {
+            return roundTrips;
+        }
+    }
+
+    /**
+     * Inner class to represent a worker's result shard. Only its worker thread appends to it;
+     * closing it when the reports are generated reopens it on the next append.
+     */
+    private static class ResultShard {
+        private final Path path;
+        private Writer writer;
+
+        ResultShard(Path path) {
+            this.path = path;
+        }
+
+        synchronized void append(String line) throws IOException {
+            if (writer == null) {
+                Files.createDirectories(path.getParent());
+                writer = Channels.newWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND), StandardCharsets.UTF_8);
+            }
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+        }
+
+        synchronized void close() {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close result shard " + path + ": " + e.getMessage());
+                }
+                writer = null;
+            }
+        }
+    }
+
+    /**
+     * Inner class to represent a framework table.
+     */
+    private static class FrameworkTable {
+        private final String[] headers;
+        private final List<String[]> rows;
+
+        FrameworkTable(String[] headers, List<String[]> rows) {
+            this.headers = headers;
+            this.rows = rows;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.janitri.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Merges result shards (one JSON Lines file per worker thread and JVM) into a single results log ordered
+ * by timestamp. Each shard is already in timestamp order, so a k-way merge keeps only one pending result
+ * per shard in memory however many results there are. Screenshot records, appended to a shard when a
+ * failure screenshot has been written, are collected first and applied to the results they refer to.
+ * Run the main method after forked or multi-JVM runs that share a reportRunId to build the combined report:
+ * java -DreportRunId=&lt;id&gt; -cp &lt;test classpath&gt; com.janitri.utils.ReportMerger
+ */
+public class ReportMerger {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String SCREENSHOT_FOR = "screenshotFor";
+
+    /**
+     * List the shard files in a directory
+     * @param shardDir Shard directory
+     * @return Shard files, empty if the directory does not exist
+     * @throws IOException if the directory cannot be read
+     */
+    public static List<Path> listShards(Path shardDir) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        if (Files.isDirectory(shardDir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(shardDir, "*.jsonl")) {
+                for (Path file : files) {
+                    shards.add(file);
+                }
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Merge shards into one log ordered by timestamp, replacing the output file
+     * @param shards Shard files, each ordered by timestamp
+     * @param output Merged log
+     * @return Number of records written
+     * @throws IOException if a shard cannot be read or the output cannot be written
+     */
+    public static long merge(List<Path> shards, Path output) throws IOException {
+        Map<String, String> screenshots = readScreenshotRecords(shards);
+        PriorityQueue<ShardCursor> queue = new PriorityQueue<>(Math.max(1, shards.size()),
+                Comparator.comparing((ShardCursor cursor) -> cursor.timestamp).thenComparingInt(cursor -> cursor.order));
+        long records = 0;
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            try {
+                for (int i = 0; i < shards.size(); i++) {
+                    ShardCursor cursor = new ShardCursor(shards.get(i), i);
+                    if (cursor.advance()) {
+                        queue.add(cursor);
+                    } else {
+                        cursor.close();
+                    }
+                }
+                while (!queue.isEmpty()) {
+                    ShardCursor cursor = queue.poll();
+                    writer.write(withScreenshot(cursor, screenshots));
+                    writer.write('\n');
+                    records++;
+                    if (cursor.advance()) {
+                        queue.add(cursor);
+                    } else {
+                        cursor.close();
+                    }
+                }
+            } finally {
+                for (ShardCursor cursor : queue) {
+                    cursor.close();
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Build the record that attaches a screenshot to a result written earlier to the same shard
+     * @param resultId Id of the result
+     * @param screenshotPath Path of the screenshot
+     * @return JSON line
+     * @throws IOException if serialization fails
+     */
+    public static String screenshotRecord(String resultId, String screenshotPath) throws IOException {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put(SCREENSHOT_FOR, resultId);
+        node.put("screenshot", screenshotPath);
+        return MAPPER.writeValueAsString(node);
+    }
+
+    /**
+     * Collect the screenshot records of all shards; there is one per failed test at most
+     * @return Screenshot path by result id
+     */
+    private static Map<String, String> readScreenshotRecords(List<Path> shards) throws IOException {
+        Map<String, String> screenshots = new HashMap<>();
+        for (Path shard : shards) {
+            try (Stream<String> lines = Files.lines(shard, StandardCharsets.UTF_8)) {
+                lines.filter(line -> line.contains(SCREENSHOT_FOR)).forEach(line -> {
+                    try {
+                        JsonNode node = MAPPER.readTree(line);
+                        if (node != null && node.hasNonNull(SCREENSHOT_FOR)) {
+                            screenshots.put(node.get(SCREENSHOT_FOR).asText(), node.path("screenshot").asText(""));
+                        }
+                    } catch (Exception e) {
+                        // Incomplete or malformed record
+                    }
+                });
+            }
+        }
+        return screenshots;
+    }
+
+    private static String withScreenshot(ShardCursor cursor, Map<String, String> screenshots) throws IOException {
+        String screenshot = cursor.resultId != null ? screenshots.get(cursor.resultId) : null;
+        if (screenshot == null) {
+            return cursor.line;
+        }
+        cursor.node.put("screenshot", screenshot);
+        return MAPPER.writeValueAsString(cursor.node);
+    }
+
+    /**
+     * Current result of a shard being merged
+     */
+    private static class ShardCursor {
+        private final BufferedReader reader;
+        private final int order;
+        private String line;
+        private ObjectNode node;
+        private String resultId;
+        private LocalDateTime timestamp;
+
+        ShardCursor(Path shard, int order) throws IOException {
+            this.reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8);
+            this.order = order;
+        }
+
+        /**
+         * Move to the next complete result, skipping screenshot records and lines a crashed worker left incomplete
+         * @return false at the end of the shard
+         * @throws IOException if reading fails
+         */
+        boolean advance() throws IOException {
+            String next;
+            while ((next = reader.readLine()) != null) {
+                try {
+                    JsonNode parsed = MAPPER.readTree(next);
+                    if (parsed instanceof ObjectNode && parsed.hasNonNull("timestamp")) {
+                        line = next;
+                        node = (ObjectNode) parsed;
+                        resultId = parsed.hasNonNull("resultId") ? parsed.get("resultId").asText() : null;
+                        timestamp = LocalDateTime.parse(parsed.get("timestamp").asText());
+                        return true;
+                    }
+                } catch (Exception e) {
+                    // Incomplete or malformed record
+                }
+            }
+            return false;
+        }
+
+        void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Merge the shards of the configured reportRunId and generate the HTML and CSV reports
+     * @param args Not used; select the run with -DreportRunId
+     */
+    public static void main(String[] args) {
+        ReportManager.getInstance().generateReports();
+    }
+}
@@ -0,0 +1,125 @@
+package com.janitri.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Blocks non-essential requests (analytics, fonts, large media, third-party scripts) through
+ * DevTools Network.setBlockedURLs and keeps statistics on what blocking saved.
+ * Sizes of blocked resources are estimated from unblocked loads of the same URL seen by a network recorder.
+ */
+public class RequestBlocker {
+    private static final ConfigManager configManager = ConfigManager.getInstance();
+    private static final String DEFAULT_PATTERNS = "*google-analytics.com*,*googletagmanager.com*,"
+            + "*doubleclick.net*,*connect.facebook.net*,*hotjar.com*,*fonts.googleapis.com*,*fonts.gstatic.com*,"
+            + "*.woff,*.woff2,*.ttf,*.otf,*.jpg,*.jpeg,*.gif,*.webp,*.mp4,*.webm";
+    private static final int MAX_KNOWN_SIZES = 10000;
+    private static final Map<String, Long> knownSizes = new ConcurrentHashMap<>();
+
+    // Statistics
+    private static final LongAdder blockedRequests = new LongAdder();
+    private static final LongAdder blockedBytes = new LongAdder();
+    private static final LongAdder blockedNavigations = new LongAdder();
+    private static final LongAdder blockedNavigationMillis = new LongAdder();
+    private static final LongAdder fullNavigations = new LongAdder();
+    private static final LongAdder fullNavigationMillis = new LongAdder();
+
+    /**
+     * Get the configured URL patterns to block
+     * @return List of URL patterns (wildcards as understood by Network.setBlockedURLs)
+     */
+    public static List<String> getPatterns() {
+        List<String> patterns = new ArrayList<>();
+        for (String pattern : configManager.getProperty("blockedUrlPatterns", DEFAULT_PATTERNS).split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                patterns.add(pattern.trim());
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Start blocking the configured patterns on a recorder's DevTools session
+     * @param recorder Network recorder of the driver
+     */
+    public static void block(NetworkRecorder recorder) {
+        setBlockedUrls(recorder, getPatterns());
+    }
+
+    /**
+     * Stop blocking requests on a recorder's DevTools session
+     * @param recorder Network recorder of the driver
+     */
+    public static void unblock(NetworkRecorder recorder) {
+        setBlockedUrls(recorder, Collections.emptyList());
+    }
+
+    private static void setBlockedUrls(NetworkRecorder recorder, List<String> patterns) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("urls", patterns);
+        recorder.sendCommand("Network.setBlockedURLs", params);
+    }
+
+    /**
+     * Record a navigation. Blocked navigations count the requests that were skipped; unblocked ones
+     * teach the blocker how large each resource is.
+     * @param recorder Network recorder of the driver, or null if network capture is not attached
+     * @param blocked Whether request blocking was active
+     * @param navigationMillis Time the navigation took until the page was loaded
+     */
+    public static void recordNavigation(NetworkRecorder recorder, boolean blocked, long navigationMillis) {
+        if (blocked) {
+            blockedNavigations.increment();
+            blockedNavigationMillis.add(navigationMillis);
+        } else {
+            fullNavigations.increment();
+            fullNavigationMillis.add(navigationMillis);
+        }
+        if (recorder == null) {
+            return;
+        }
+
+        for (NetworkRecorder.NetworkEntry entry : recorder.getEntries()) {
+            if (entry.getBlockedReason() != null) {
+                blockedRequests.increment();
+                Long size = knownSizes.get(entry.getUrl());
+                if (size != null) {
+                    blockedBytes.add(size);
+                }
+            } else if (entry.isFinished() && !entry.isFailed() && knownSizes.size() < MAX_KNOWN_SIZES) {
+                knownSizes.put(entry.getUrl(), entry.getEncodedBytes());
+            }
+        }
+    }
+
+    /**
+     * Record request blocking statistics in the report
+     * @param reportManager ReportManager to record metrics in
+     */
+    public static void recordMetrics(ReportManager reportManager) {
+        long navigations = blockedNavigations.sum();
+        if (navigations == 0) {
+            return;
+        }
+        reportManager.addFrameworkMetric("Requests blocked",
+                blockedRequests.sum() + " across " + navigations + " navigations ("
+                        + blockedBytes.sum() / 1024 + " KB of known size skipped)");
+
+        long baselineCount = fullNavigations.sum();
+        double blockedAverage = (double) blockedNavigationMillis.sum() / navigations;
+        if (baselineCount > 0) {
+            double fullAverage = (double) fullNavigationMillis.sum() / baselineCount;
+            reportManager.addFrameworkMetric("Navigation time saved by blocking", String.format(
+                    "~%.0f ms (avg %.0f ms blocked vs %.0f ms unblocked)",
+                    Math.max(0, fullAverage - blockedAverage) * navigations, blockedAverage, fullAverage));
+        } else {
+            reportManager.addFrameworkMetric("Navigation time saved by blocking", String.format(
+                    "n/a (avg %.0f ms blocked, no unblocked navigations to compare)", blockedAverage));
+        }
+    }
+}
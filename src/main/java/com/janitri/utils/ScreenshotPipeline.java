@@ -0,0 +1,136 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Captures screenshots as bytes on the test thread and hands them to the {@link ScreenshotStore} on a
+ * bounded background executor. When the queue is full the capturing thread writes the file itself, which
+ * throttles failure-heavy runs instead of buffering an unbounded number of images.
+ * Identical captures of the same test are written once.
+ */
+public class ScreenshotPipeline {
+    private static final ConfigManager configManager = ConfigManager.getInstance();
+    private static final ThreadPoolExecutor writers = createExecutor();
+    private static final Map<String, CompletableFuture<String>> writtenCaptures = new ConcurrentHashMap<>();
+
+    // Statistics
+    private static final LongAdder captures = new LongAdder();
+    private static final LongAdder duplicates = new LongAdder();
+    private static final LongAdder callerWrites = new LongAdder();
+    private static final LongAdder captureNanos = new LongAdder();
+    private static final LongAdder writeNanos = new LongAdder();
+
+    private static ThreadPoolExecutor createExecutor() {
+        int threads = Math.max(1, configManager.getIntProperty("screenshotWriterThreads", 2));
+        int capacity = Math.max(1, configManager.getIntProperty("screenshotQueueCapacity", 16));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                task -> {
+                    Thread thread = new Thread(task, "screenshot-writer-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    // Backpressure: the test thread writes the file itself
+                    callerWrites.increment();
+                    if (!pool.isShutdown()) {
+                        task.run();
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Capture a screenshot and write it in the background
+     * @param driver WebDriver instance
+     * @param testName Name of the test, recorded in the store index and used to detect duplicate captures
+     * @return Future completing with the screenshot path, or with null if writing failed
+     */
+    public static CompletableFuture<String> capture(WebDriver driver, String testName) {
+        long start = System.nanoTime();
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        captures.increment();
+        captureNanos.add(System.nanoTime() - start);
+        return CompletableFuture.supplyAsync(() -> write(png, testName), writers);
+    }
+
+    /**
+     * Write a capture unless an identical one of the same test was already written
+     * @param png PNG bytes
+     * @param testName Test name
+     * @return Screenshot path, or null if writing failed
+     */
+    private static String write(byte[] png, String testName) {
+        long start = System.nanoTime();
+        String hash = sha256(png);
+        CompletableFuture<String> written = new CompletableFuture<>();
+        String key = testName + "@" + hash;
+        CompletableFuture<String> existing = writtenCaptures.putIfAbsent(key, written);
+        if (existing != null) {
+            duplicates.increment();
+            return existing.join();
+        }
+
+        String path = null;
+        try {
+            path = ScreenshotStore.store(png, hash, testName);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to write screenshot: " + e.getMessage());
+        } finally {
+            // Always complete, so that duplicate captures waiting on this write never block;
+            // a failed write is forgotten so that the next capture tries again
+            if (path == null) {
+                writtenCaptures.remove(key, written);
+            }
+            written.complete(path);
+        }
+        writeNanos.add(System.nanoTime() - start);
+        return path;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(data)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Record screenshot pipeline statistics in the report and reset the counters
+     * @param reportManager ReportManager to record metrics in
+     */
+    public static void recordMetrics(ReportManager reportManager) {
+        long captured = captures.sumThenReset();
+        if (captured == 0) {
+            return;
+        }
+        reportManager.addFrameworkMetric("Screenshots captured", String.format(
+                "%d (%d duplicates skipped, %d written on the test thread under backpressure)",
+                captured, duplicates.sumThenReset(), callerWrites.sumThenReset()));
+        reportManager.addFrameworkMetric("Screenshot time", String.format(
+                "%.0f ms capturing on test threads, %.0f ms writing in the background",
+                captureNanos.sumThenReset() / 1_000_000.0, writeNanos.sumThenReset() / 1_000_000.0));
+        writtenCaptures.clear();
+    }
+}
@@ -0,0 +1,252 @@
+package com.janitri.utils;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-addressed screenshot storage.
+ * Images are stored once under objects/&lt;sha256&gt;.png with a thumbnail under thumbs/, and an
+ * append-only index (index.tsv: run, time, test, hash) records which test produced which image.
+ * When the store grows beyond screenshotStoreMaxMb, the oldest runs are evicted and images no newer
+ * run refers to are deleted.
+ */
+public class ScreenshotStore {
+    private static final ConfigManager configManager = ConfigManager.getInstance();
+    private static final String OBJECT_DIR = "objects";
+    private static final String THUMBNAIL_DIR = "thumbs";
+    private static final String INDEX_FILE = "index.tsv";
+
+    // Statistics
+    private static final LongAdder storedObjects = new LongAdder();
+    private static final LongAdder reusedObjects = new LongAdder();
+    private static final LongAdder evictedRuns = new LongAdder();
+    private static final LongAdder evictedBytes = new LongAdder();
+
+    /**
+     * Get the store's root directory
+     * @return Root directory (screenshotDir, "screenshots" by default)
+     */
+    public static Path getRoot() {
+        return Paths.get(configManager.getProperty("screenshotDir", "screenshots"));
+    }
+
+    /**
+     * Store a screenshot unless an identical image is already stored, and record it in the index
+     * @param png PNG bytes
+     * @param hash SHA-256 of the bytes as hex
+     * @param testName Test that produced the screenshot
+     * @return Path of the stored image
+     * @throws IOException if the image cannot be written
+     */
+    public static String store(byte[] png, String hash, String testName) throws IOException {
+        Path object = getRoot().resolve(OBJECT_DIR).resolve(hash + ".png");
+        if (Files.exists(object)) {
+            reusedObjects.increment();
+        } else {
+            writeAtomically(object, png);
+            if (configManager.getBooleanProperty("screenshotThumbnails", true)) {
+                writeThumbnail(png, getRoot().resolve(THUMBNAIL_DIR).resolve(hash + ".png"));
+            }
+            storedObjects.increment();
+        }
+        appendIndexEntry(testName, hash);
+        return toPathString(object);
+    }
+
+    private static void writeAtomically(Path target, byte[] data) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(target.getParent(), "screenshot", ".tmp");
+        Files.write(tempFile, data);
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Another writer stored the same image first
+            Files.deleteIfExists(tempFile);
+            if (!Files.exists(target)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Write a scaled-down copy of a screenshot for the report
+     * @param png PNG bytes
+     * @param path Thumbnail path
+     * @throws IOException if writing fails
+     */
+    private static void writeThumbnail(byte[] png, Path path) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return;
+        }
+        int width = Math.min(image.getWidth(), configManager.getIntProperty("screenshotThumbnailWidth", 320));
+        int height = Math.max(1, image.getHeight() * width / image.getWidth());
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        Files.createDirectories(path.getParent());
+        ImageIO.write(thumbnail, "png", path.toFile());
+    }
+
+    private static synchronized void appendIndexEntry(String testName, String hash) throws IOException {
+        Path index = getRoot().resolve(INDEX_FILE);
+        String line = ReportManager.getInstance().getRunId() + "\t" + System.currentTimeMillis() + "\t"
+                + testName.replace('\t', ' ').replace('\n', ' ') + "\t" + hash + "\n";
+        Files.write(index, line.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Get the thumbnail of a stored screenshot
+     * @param screenshotPath Path returned by {@link #store}
+     * @return Thumbnail path, or null if there is no thumbnail
+     */
+    public static String getThumbnailPath(String screenshotPath) {
+        if (screenshotPath == null || screenshotPath.isEmpty()) {
+            return null;
+        }
+        Path thumbnail = getRoot().resolve(THUMBNAIL_DIR).resolve(Paths.get(screenshotPath).getFileName());
+        return Files.exists(thumbnail) ? toPathString(thumbnail) : null;
+    }
+
+    private static String toPathString(Path path) {
+        return path.toString().replace('\\', '/');
+    }
+
+    /**
+     * Evict the oldest runs until the store fits in screenshotStoreMaxMb.
+     * An image is deleted only when no remaining run refers to it; the current run is never evicted.
+     */
+    public static synchronized void enforceSizeCap() {
+        long capBytes = configManager.getIntProperty("screenshotStoreMaxMb", 200) * 1024L * 1024L;
+        Path objectDir = getRoot().resolve(OBJECT_DIR);
+        if (capBytes <= 0 || !Files.isDirectory(objectDir)) {
+            return;
+        }
+
+        try {
+            Map<String, Long> objectSizes = new HashMap<>();
+            long totalBytes = 0;
+            try (DirectoryStream<Path> objects = Files.newDirectoryStream(objectDir, "*.png")) {
+                for (Path object : objects) {
+                    long size = Files.size(object);
+                    objectSizes.put(object.getFileName().toString().replace(".png", ""), size);
+                    totalBytes += size;
+                }
+            }
+            if (totalBytes <= capBytes) {
+                return;
+            }
+
+            // Runs in the order they were recorded, and the last run that used each image
+            List<String[]> entries = readIndex();
+            Set<String> runs = new LinkedHashSet<>();
+            Map<String, String> lastRunOfHash = new HashMap<>();
+            for (String[] entry : entries) {
+                runs.add(entry[0]);
+                lastRunOfHash.put(entry[3], entry[0]);
+            }
+
+            // Images no run refers to go first
+            for (String hash : new ArrayList<>(objectSizes.keySet())) {
+                if (!lastRunOfHash.containsKey(hash) && totalBytes > capBytes) {
+                    totalBytes -= deleteObject(hash, objectSizes.get(hash));
+                }
+            }
+
+            // Every JVM of the current report run (forks share the reportRunId) keeps its images
+            String currentRun = ReportManager.getInstance().getRunId();
+            Set<String> evicted = new HashSet<>();
+            for (String run : runs) {
+                if (totalBytes <= capBytes || run.equals(currentRun)) {
+                    break;
+                }
+                evicted.add(run);
+                for (Map.Entry<String, String> hash : lastRunOfHash.entrySet()) {
+                    if (hash.getValue().equals(run) && objectSizes.containsKey(hash.getKey())) {
+                        totalBytes -= deleteObject(hash.getKey(), objectSizes.get(hash.getKey()));
+                    }
+                }
+            }
+            if (!evicted.isEmpty()) {
+                evictedRuns.add(evicted.size());
+                rewriteIndex(entries, evicted);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to enforce screenshot store size cap: " + e.getMessage());
+        }
+    }
+
+    private static long deleteObject(String hash, long size) throws IOException {
+        Files.deleteIfExists(getRoot().resolve(OBJECT_DIR).resolve(hash + ".png"));
+        Files.deleteIfExists(getRoot().resolve(THUMBNAIL_DIR).resolve(hash + ".png"));
+        evictedBytes.add(size);
+        return size;
+    }
+
+    private static List<String[]> readIndex() throws IOException {
+        List<String[]> entries = new ArrayList<>();
+        Path index = getRoot().resolve(INDEX_FILE);
+        if (Files.exists(index)) {
+            for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                if (fields.length == 4) {
+                    entries.add(fields);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static void rewriteIndex(List<String[]> entries, Set<String> evicted) throws IOException {
+        Path index = getRoot().resolve(INDEX_FILE);
+        Path tempFile = Files.createTempFile(getRoot(), "index", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            for (String[] entry : entries) {
+                if (!evicted.contains(entry[0])) {
+                    writer.write(String.join("\t", entry) + "\n");
+                }
+            }
+        }
+        Files.move(tempFile, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Record screenshot store statistics in the report and reset the counters
+     * @param reportManager ReportManager to record metrics in
+     */
+    public static void recordMetrics(ReportManager reportManager) {
+        long stored = storedObjects.sumThenReset();
+        long reused = reusedObjects.sumThenReset();
+        long runs = evictedRuns.sumThenReset();
+        long bytes = evictedBytes.sumThenReset();
+        if (stored + reused + runs == 0) {
+            return;
+        }
+        reportManager.addFrameworkMetric("Screenshot store", String.format(
+                "%d images stored, %d identical images reused, %d old runs evicted (%d KB freed)",
+                stored, reused, runs, bytes / 1024));
+    }
+}
@@ -0,0 +1,66 @@
+package com.janitri.utils;
+
+/**
+ * Tracks the test running on the current thread so that framework utilities can attribute
+ * their work (WebDriver round-trips, time saved, etc.) to it.
+ * A context is only ever touched by the thread running its test.
+ */
+public class TestContext {
+    private static final String NO_TEST = "(outside test)";
+    private static final ThreadLocal<TestContext> currentContext = new ThreadLocal<>();
+
+    private final String testName;
+    private long roundTrips;
+
+    private TestContext(String testName) {
+        this.testName = testName;
+    }
+
+    /**
+     * Start tracking a test on the current thread, replacing any previous context
+     * @param testName Test identifier, e.g. LoginPageTest.testValidLogin
+     */
+    public static void begin(String testName) {
+        currentContext.set(new TestContext(testName));
+    }
+
+    /**
+     * Stop tracking the current thread's test
+     */
+    public static void end() {
+        currentContext.remove();
+    }
+
+    /**
+     * Get the context of the test running on the current thread
+     * @return TestContext instance, or null outside a test
+     */
+    public static TestContext current() {
+        return currentContext.get();
+    }
+
+    /**
+     * Get the name of the test running on the current thread
+     * @return Test name, or a placeholder for work done outside a test (pre-warming, suite setup)
+     */
+    public static String currentTestName() {
+        TestContext context = currentContext.get();
+        return context != null ? context.testName : NO_TEST;
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    /**
+     * Get the number of WebDriver round-trips made by this test so far
+     * @return Round-trip count
+     */
+    public long getRoundTrips() {
+        return roundTrips;
+    }
+
+    void addRoundTrip() {
+        roundTrips++;
+    }
+}
@@ -0,0 +1,171 @@
+package com.janitri.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeded test data generation without shared state between threads.
+ * Each thread gets its own generator, re-seeded for every test invocation from testDataSeed and the test id
+ * (Class.method, with the data provider row index for data-driven tests), so a run can be replayed by setting
+ * testDataSeed to the value printed at start-up regardless of which worker runs which test or row. Named streams (e.g. one per data provider) are seeded the same way from their name.
+ * Unique IDs come from a run tag and a shared counter, so parallel threads never produce the same email.
+ * A generator is not thread-safe; use {@link #current()} or one stream per thread.
+ */
+public class TestDataGenerator {
+    private static final char[] ALPHANUMERIC =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+    private static final char[] SPECIAL = "!@#$%^&*()-_=+".toCharArray();
+    private static final long SEED = resolveSeed();
+    private static final String RUN_TAG = Long.toString(System.currentTimeMillis(), 36);
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final ThreadLocal<TestDataGenerator> threadGenerator = new ThreadLocal<>();
+
+    private final TestContext context;
+    private final SplittableRandom random;
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    private TestDataGenerator(String streamName, TestContext context) {
+        this.context = context;
+        this.random = new SplittableRandom(mix(SEED, streamName));
+    }
+
+    private static long resolveSeed() {
+        String configured = ConfigManager.getInstance().getProperty("testDataSeed", "").trim();
+        long seed;
+        try {
+            seed = configured.isEmpty() ? System.nanoTime() ^ System.currentTimeMillis() : Long.parseLong(configured);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid testDataSeed '" + configured + "', using its hash code");
+            seed = configured.hashCode();
+        }
+        System.out.println("Test data seed: " + seed + " (set testDataSeed=" + seed + " to replay)");
+        return seed;
+    }
+
+    /**
+     * Derive a stream seed from the run seed and a stream name (SplitMix64 finalizer)
+     */
+    private static long mix(long seed, String streamName) {
+        long z = seed + 0x9E3779B97F4A7C15L * (streamName.hashCode() + 1L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Get the current thread's generator, seeded for the test invocation running on this thread
+     * @return Generator for the current test invocation
+     */
+    public static TestDataGenerator current() {
+        // Every invocation begins a new context, so each row and repetition starts from its own seed
+        TestContext context = TestContext.current();
+        TestDataGenerator generator = threadGenerator.get();
+        if (generator == null || generator.context != context) {
+            generator = new TestDataGenerator(TestContext.currentTestName(), context);
+            threadGenerator.set(generator);
+        }
+        return generator;
+    }
+
+    /**
+     * Create an independent generator whose output depends only on the seed and the stream name
+     * @param streamName Stream name, e.g. the data provider name
+     * @return New generator
+     */
+    public static TestDataGenerator forStream(String streamName) {
+        return new TestDataGenerator(streamName, null);
+    }
+
+    /**
+     * Get the seed of this run
+     * @return Seed
+     */
+    public static long getSeed() {
+        return SEED;
+    }
+
+    /**
+     * Generate an ID that is unique across all threads of this run and distinct from earlier runs
+     * @return Unique ID
+     */
+    public static String uniqueId() {
+        return RUN_TAG + Long.toString(sequence.incrementAndGet(), 36);
+    }
+
+    /**
+     * Generate a random alphanumeric string
+     * @param length Length of the string
+     * @return Random string
+     */
+    public String randomString(int length) {
+        return fill(length, ALPHANUMERIC);
+    }
+
+    /**
+     * Generate a random password with at least one upper-case letter, lower-case letter, digit and special character
+     * @param length Length of the password (at least 4)
+     * @return Random password
+     */
+    public String randomPassword(int length) {
+        buffer.setLength(0);
+        buffer.append(ALPHANUMERIC[random.nextInt(26)])
+                .append(ALPHANUMERIC[26 + random.nextInt(26)])
+                .append(ALPHANUMERIC[52 + random.nextInt(10)])
+                .append(SPECIAL[random.nextInt(SPECIAL.length)]);
+        for (int i = 4; i < length; i++) {
+            buffer.append(ALPHANUMERIC[random.nextInt(ALPHANUMERIC.length)]);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Generate an email address that is unique across threads
+     * @return Email address
+     */
+    public String uniqueEmail() {
+        return "test" + uniqueId() + "@example.com";
+    }
+
+    /**
+     * Generate a random 10-digit Indian mobile number
+     * @return Phone number
+     */
+    public String randomPhoneNumber() {
+        buffer.setLength(0);
+        buffer.append('9');
+        for (int i = 0; i < 9; i++) {
+            buffer.append((char) ('0' + random.nextInt(10)));
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Generate strings around a length limit: empty, one character, limit - 1, limit, limit + 1,
+     * whitespace only and non-ASCII
+     * @param maxLength Length limit
+     * @return Boundary strings
+     */
+    public List<String> boundaryStrings(int maxLength) {
+        List<String> strings = new ArrayList<>(7);
+        strings.add("");
+        strings.add(randomString(1));
+        if (maxLength > 1) {
+            strings.add(randomString(maxLength - 1));
+        }
+        strings.add(randomString(maxLength));
+        strings.add(randomString(maxLength + 1));
+        strings.add(" ".repeat(Math.max(1, maxLength)));
+        strings.add("\u00fc" + randomString(Math.max(0, maxLength - 1)));
+        return strings;
+    }
+
+    private String fill(int length, char[] alphabet) {
+        buffer.setLength(0);
+        for (int i = 0; i < length; i++) {
+            buffer.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return buffer.toString();
+    }
+}
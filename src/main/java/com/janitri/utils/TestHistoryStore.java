@@ -0,0 +1,447 @@
+package com.janitri.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only store of test executions across runs, used to track duration percentiles and pass/fail streaks.
+ * history.bin holds fixed-size binary records (test key, status, duration, time and the offset of the test's
+ * previous record), so the recent executions of a test are read by following its chain from the last offset
+ * without scanning the file. index.tsv maps test ids to keys and last offsets, and remembers where each report
+ * run's records start; an execution already recorded for the run (same test and time) is skipped, so
+ * regenerating a report or merging it from several JVMs never records an execution twice nor drops one.
+ * Updates hold a file lock, so concurrent JVMs take turns.
+ */
+public class TestHistoryStore {
+    private static final String HISTORY_FILE = "history.bin";
+    private static final String INDEX_FILE = "index.tsv";
+    private static final String LOCK_FILE = "history.lock";
+    private static final int RECORD_SIZE = 32;
+    private static final byte PASSED = 1;
+    private static final byte FAILED = 2;
+
+    private final Path directory;
+    private final Map<String, TestEntry> tests = new HashMap<>();
+    private final Map<String, Long> runOffsets = new HashMap<>();
+
+    /**
+     * Create a store in the given directory
+     * @param directory History directory, created on the first update
+     */
+    public TestHistoryStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Record the executions of a run that have not been recorded for the run before.
+     * Skipped tests are not recorded.
+     * @param runId Report run id
+     * @param executions Executions in time order
+     * @return Ids of the tests recorded by this call
+     * @throws IOException if the store cannot be updated
+     */
+    public synchronized List<String> record(String runId, Iterator<Execution> executions) throws IOException {
+        Files.createDirectories(directory);
+        List<String> recorded = new ArrayList<>();
+        try (FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = lockChannel.lock()) {
+            loadIndex();
+            try (FileChannel history = FileChannel.open(directory.resolve(HISTORY_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long offset = history.size() - history.size() % RECORD_SIZE;
+                Long firstOffset = runOffsets.get(runId);
+                Map<Integer, Set<Long>> alreadyRecorded = firstOffset != null
+                        ? readExecutionTimes(history, firstOffset, offset) : new HashMap<>();
+                if (firstOffset == null) {
+                    runOffsets.put(runId, offset);
+                }
+                ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+                while (executions.hasNext()) {
+                    Execution execution = executions.next();
+                    if (execution.status == 0) {
+                        continue;
+                    }
+                    TestEntry entry = tests.computeIfAbsent(execution.testId,
+                            id -> new TestEntry(tests.size(), id));
+                    if (!alreadyRecorded.computeIfAbsent(entry.key, key -> new HashSet<>()).add(execution.epochMillis)) {
+                        continue;
+                    }
+                    record.clear();
+                    record.putInt(entry.key)
+                            .put(execution.status)
+                            .put(new byte[3])
+                            .putLong(execution.epochMillis)
+                            .putInt((int) Math.min(Integer.MAX_VALUE, Math.max(0, execution.durationMs)))
+                            .putLong(entry.lastOffset)
+                            .putInt(0);
+                    record.flip();
+                    history.write(record, offset);
+                    entry.lastOffset = offset;
+                    entry.count++;
+                    offset += RECORD_SIZE;
+                    recorded.add(execution.testId);
+                }
+                history.force(false);
+            }
+            writeIndex();
+        }
+        return recorded;
+    }
+
+    /**
+     * Read the test keys and times of the records in a range of the history file
+     * @return Execution times by test key
+     */
+    private static Map<Integer, Set<Long>> readExecutionTimes(FileChannel history, long from, long to)
+            throws IOException {
+        Map<Integer, Set<Long>> times = new HashMap<>();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 1024);
+        long position = from;
+        while (position < to) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), to - position));
+            int read = history.read(buffer, position);
+            if (read < RECORD_SIZE) {
+                break;
+            }
+            buffer.flip();
+            while (buffer.remaining() >= RECORD_SIZE) {
+                int start = buffer.position();
+                int key = buffer.getInt(start);
+                long epochMillis = buffer.getLong(start + 8);
+                times.computeIfAbsent(key, k -> new HashSet<>()).add(epochMillis);
+                buffer.position(start + RECORD_SIZE);
+            }
+            position += read - read % RECORD_SIZE;
+        }
+        return times;
+    }
+
+    /**
+     * Read the most recent executions of a test, newest first
+     * @param testId Test id
+     * @param limit Maximum number of executions
+     * @return Executions, empty if the test has no history
+     * @throws IOException if the history cannot be read
+     */
+    public synchronized List<Execution> recent(String testId, int limit) throws IOException {
+        if (tests.isEmpty()) {
+            loadIndex();
+        }
+        TestEntry entry = tests.get(testId);
+        Path historyPath = directory.resolve(HISTORY_FILE);
+        if (entry == null || !Files.exists(historyPath)) {
+            return Collections.emptyList();
+        }
+        List<Execution> executions = new ArrayList<>(Math.min(limit, entry.count));
+        try (FileChannel history = FileChannel.open(historyPath, StandardOpenOption.READ)) {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            long offset = entry.lastOffset;
+            while (offset >= 0 && executions.size() < limit) {
+                record.clear();
+                if (history.read(record, offset) < RECORD_SIZE) {
+                    break;
+                }
+                record.flip();
+                record.getInt();
+                byte status = record.get();
+                record.position(record.position() + 3);
+                long epochMillis = record.getLong();
+                int durationMs = record.getInt();
+                long previousOffset = record.getLong();
+                executions.add(new Execution(testId, status == PASSED, durationMs, epochMillis));
+                // Records only ever point backwards; anything else means a damaged file
+                offset = previousOffset < offset ? previousOffset : -1;
+            }
+        }
+        return executions;
+    }
+
+    /**
+     * Analyze the recent history of a test
+     * @param testId Test id
+     * @param window Number of recent executions to consider
+     * @param recentCount Number of newest executions compared against the older ones
+     * @return Trend, or null if the test has no history
+     * @throws IOException if the history cannot be read
+     */
+    public TestTrend analyze(String testId, int window, int recentCount) throws IOException {
+        List<Execution> executions = recent(testId, window);
+        if (executions.isEmpty()) {
+            return null;
+        }
+        int split = Math.min(recentCount, executions.size());
+        long[] recentDurations = durations(executions.subList(0, split));
+        long[] baselineDurations = durations(executions.subList(split, executions.size()));
+
+        int streak = 1;
+        while (streak < executions.size() && executions.get(streak).passed == executions.get(0).passed) {
+            streak++;
+        }
+        int flips = 0;
+        int passes = executions.get(0).passed ? 1 : 0;
+        for (int i = 1; i < executions.size(); i++) {
+            if (executions.get(i).passed != executions.get(i - 1).passed) {
+                flips++;
+            }
+            passes += executions.get(i).passed ? 1 : 0;
+        }
+        return new TestTrend(testId, executions.size(), percentile(recentDurations, 50),
+                percentile(recentDurations, 95), baselineDurations.length, percentile(baselineDurations, 50),
+                percentile(baselineDurations, 95), executions.get(0).passed, streak, flips,
+                passes * 100 / executions.size());
+    }
+
+    /**
+     * Get the median duration of every test in the history
+     * @param window Number of recent executions per test to consider
+     * @return Median duration in milliseconds by test id, empty if there is no history
+     * @throws IOException if the history cannot be read
+     */
+    public synchronized Map<String, Long> medianDurations(int window) throws IOException {
+        loadIndex();
+        Map<String, Long> medians = new HashMap<>();
+        for (String testId : new ArrayList<>(tests.keySet())) {
+            long[] durations = durations(recent(testId, window));
+            if (durations.length > 0) {
+                medians.put(testId, percentile(durations, 50));
+            }
+        }
+        return medians;
+    }
+
+    private static long[] durations(List<Execution> executions) {
+        long[] durations = new long[executions.size()];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = executions.get(i).durationMs;
+        }
+        Arrays.sort(durations);
+        return durations;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return -1;
+        }
+        int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private void loadIndex() throws IOException {
+        tests.clear();
+        runOffsets.clear();
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return;
+        }
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t", -1);
+            try {
+                if (fields.length == 5 && "test".equals(fields[0])) {
+                    TestEntry entry = new TestEntry(Integer.parseInt(fields[1]), fields[4]);
+                    entry.lastOffset = Long.parseLong(fields[2]);
+                    entry.count = Integer.parseInt(fields[3]);
+                    tests.put(entry.testId, entry);
+                } else if (fields.length == 3 && "run".equals(fields[0])) {
+                    runOffsets.put(fields[1], Long.parseLong(fields[2]));
+                }
+            } catch (NumberFormatException e) {
+                System.err.println("Skipping damaged test history index line: " + line);
+            }
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        Path tempFile = Files.createTempFile(directory, "index", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            for (TestEntry entry : tests.values()) {
+                writer.write("test\t" + entry.key + "\t" + entry.lastOffset + "\t" + entry.count + "\t"
+                        + entry.testId.replace('\t', ' ').replace('\n', ' ') + "\n");
+            }
+            for (Map.Entry<String, Long> run : runOffsets.entrySet()) {
+                writer.write("run\t" + run.getKey() + "\t" + run.getValue() + "\n");
+            }
+        }
+        Files.move(tempFile, directory.resolve(INDEX_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Index entry of a test
+     */
+    private static class TestEntry {
+        private final int key;
+        private final String testId;
+        private long lastOffset = -1;
+        private int count;
+
+        TestEntry(int key, String testId) {
+            this.key = key;
+            this.testId = testId;
+        }
+    }
+
+    /**
+     * One execution of a test
+     */
+    public static final class Execution {
+        private final String testId;
+        private final byte status;
+        private final boolean passed;
+        private final long durationMs;
+        private final long epochMillis;
+
+        /**
+         * @param testId Test id, e.g. LoginPageTest.testValidLogin
+         * @param status Result status: PASS, FAIL or anything else for executions that are not recorded
+         * @param durationMs Duration in milliseconds
+         * @param epochMillis Time of the execution
+         */
+        public Execution(String testId, String status, long durationMs, long epochMillis) {
+            this(testId, "PASS".equals(status), durationMs, epochMillis,
+                    "PASS".equals(status) ? PASSED : "FAIL".equals(status) ? FAILED : 0);
+        }
+
+        private Execution(String testId, boolean passed, long durationMs, long epochMillis) {
+            this(testId, passed, durationMs, epochMillis, passed ? PASSED : FAILED);
+        }
+
+        private Execution(String testId, boolean passed, long durationMs, long epochMillis, byte status) {
+            this.testId = testId;
+            this.passed = passed;
+            this.durationMs = durationMs;
+            this.epochMillis = epochMillis;
+            this.status = status;
+        }
+
+        public boolean isPassed() {
+            return passed;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public long getEpochMillis() {
+            return epochMillis;
+        }
+    }
+
+    /**
+     * Duration percentiles and pass/fail pattern of a test's recent executions
+     */
+    public static final class TestTrend {
+        private final String testId;
+        private final int executions;
+        private final long recentP50;
+        private final long recentP95;
+        private final int baselineExecutions;
+        private final long baselineP50;
+        private final long baselineP95;
+        private final boolean lastPassed;
+        private final int streak;
+        private final int flips;
+        private final int passRate;
+
+        TestTrend(String testId, int executions, long recentP50, long recentP95, int baselineExecutions,
+                long baselineP50, long baselineP95, boolean lastPassed, int streak, int flips, int passRate) {
+            this.testId = testId;
+            this.executions = executions;
+            this.recentP50 = recentP50;
+            this.recentP95 = recentP95;
+            this.baselineExecutions = baselineExecutions;
+            this.baselineP50 = baselineP50;
+            this.baselineP95 = baselineP95;
+            this.lastPassed = lastPassed;
+            this.streak = streak;
+            this.flips = flips;
+            this.passRate = passRate;
+        }
+
+        /**
+         * Check whether the recent p50 or p95 is slower than the baseline beyond a tolerance
+         * @param tolerancePercent Allowed slowdown in percent
+         * @param minDeltaMs Smallest slowdown in milliseconds worth flagging
+         * @param minBaseline Number of baseline executions needed for a comparison
+         * @return true if the test got slower
+         */
+        public boolean isSlowerThanBaseline(int tolerancePercent, long minDeltaMs, int minBaseline) {
+            if (baselineExecutions < minBaseline) {
+                return false;
+            }
+            return regressed(recentP50, baselineP50, tolerancePercent, minDeltaMs)
+                    || regressed(recentP95, baselineP95, tolerancePercent, minDeltaMs);
+        }
+
+        private static boolean regressed(long recent, long baseline, int tolerancePercent, long minDeltaMs) {
+            return recent - baseline >= minDeltaMs && recent > baseline * (100 + tolerancePercent) / 100;
+        }
+
+        /**
+         * Check whether the test alternates between passing and failing
+         * @param minFlips Number of status changes that make a test flaky
+         * @return true if the test is flaky
+         */
+        public boolean isFlaky(int minFlips) {
+            return flips >= minFlips;
+        }
+
+        public String getTestId() {
+            return testId;
+        }
+
+        public int getExecutions() {
+            return executions;
+        }
+
+        public long getRecentP50() {
+            return recentP50;
+        }
+
+        public long getRecentP95() {
+            return recentP95;
+        }
+
+        public long getBaselineP50() {
+            return baselineP50;
+        }
+
+        public long getBaselineP95() {
+            return baselineP95;
+        }
+
+        public boolean isLastPassed() {
+            return lastPassed;
+        }
+
+        public int getStreak() {
+            return streak;
+        }
+
+        public int getFlips() {
+            return flips;
+        }
+
+        public int getPassRate() {
+            return passRate;
+        }
+    }
+}
@@ -2,20 +2,11 @@ package com.janitri.utils;
 
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
-import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Random;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionException;
 
 /**
  * Utility class for common test operations
@@ -52,31 +43,11 @@ public class TestUtils {
      * @return Path to the screenshot file
      */
     public static String takeScreenshot(WebDriver driver, String testName) {
-        // Create screenshots directory if it doesn't exist
-        Path screenshotsDir = Paths.get("screenshots");
-        if (!Files.exists(screenshotsDir)) {
-            try {
-                Files.createDirectories(screenshotsDir);
-            } catch (IOException e) {
-                e.printStackTrace();
-                return null;
-            }
-        }
-
-        // Generate timestamp for unique filename
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
-        String timestamp = now.format(formatter);
-
-        // Take screenshot
-        File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-        String screenshotPath = "screenshots/" + testName + "_" + timestamp + ".png";
-        
+        // Capture on this thread, then wait for the background writer
         try {
-            Files.copy(screenshot.toPath(), Paths.get(screenshotPath));
-            return screenshotPath;
-        } catch (IOException e) {
-            e.printStackTrace();
+            return ScreenshotPipeline.capture(driver, testName).join();
+        } catch (CompletionException | WebDriverException e) {
+            System.err.println("Failed to take screenshot: " + e.getMessage());
             return null;
         }
     }
@@ -87,21 +58,15 @@ public class TestUtils {
      * @return Random string
      */
     public static String generateRandomString(int length) {
-        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            int index = (int) (chars.length() * Math.random());
-            sb.append(chars.charAt(index));
-        }
-        return sb.toString();
+        return TestDataGenerator.current().randomString(length);
     }
     
     /**
-     * Generate a random email address
+     * Generate a random email address, unique across parallel threads
      * @return Random email address
      */
     public static String generateRandomEmail() {
-        return "test" + System.currentTimeMillis() + "@example.com";
+        return TestDataGenerator.current().uniqueEmail();
     }
     
     /**
@@ -109,12 +74,7 @@ public class TestUtils {
      * @return Random 10-digit phone number
      */
     public static String generateRandomPhoneNumber() {
-        Random random = new Random();
-        StringBuilder sb = new StringBuilder("9"); // Start with 9 for Indian mobile numbers
-        for (int i = 0; i < 9; i++) {
-            sb.append(random.nextInt(10));
-        }
-        return sb.toString();
+        return TestDataGenerator.current().randomPhoneNumber();
     }
     
     /**
@@ -122,27 +82,17 @@ public class TestUtils {
      * @param driver WebDriver instance
      */
     public static void waitForPageLoad(WebDriver driver) {
-        ExpectedCondition<Boolean> pageLoadCondition = new ExpectedCondition<Boolean>() {
-            public Boolean apply(WebDriver driver) {
-                return ((JavascriptExecutor) driver).executeScript("return document.readyState").equals("complete");
-            }
-        };
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(configManager.getIntProperty("timeout", 30)));
-        wait.until(pageLoadCondition);
+        DomWait wait = new DomWait(driver, Duration.ofSeconds(configManager.getIntProperty("timeout", 30)));
+        wait.until(DomConditions.documentReady());
     }
     
     /**
-     * Scroll to an element
+     * Scroll to an element and wait for the scroll to settle
      * @param driver WebDriver instance
      * @param element Element to scroll to
      */
     public static void scrollToElement(WebDriver driver, WebElement element) {
-        ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
-        try {
-            Thread.sleep(500); // Small pause after scrolling
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        InteractionMode.scrollIntoView(driver, element);
     }
     
     /**
@@ -154,27 +104,18 @@ public class TestUtils {
         JavascriptExecutor js = (JavascriptExecutor) driver;
         String originalStyle = element.getAttribute("style");
         js.executeScript("arguments[0].setAttribute('style', 'background: yellow; border: 2px solid red;');", element);
-        try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        js.executeScript("arguments[0].setAttribute('style', '" + originalStyle + "');", element);
+        InteractionMode.pause(InteractionMode.HIGHLIGHT_PAUSE_MS);
+        js.executeScript("arguments[0].setAttribute('style', arguments[1] || '');", element, originalStyle);
     }
     
     /**
-     * Check if an element exists
+     * Check if an element exists, waiting at most the absence grace period
      * @param driver WebDriver instance
      * @param by Locator for the element
      * @return true if element exists, false otherwise
      */
     public static boolean isElementPresent(WebDriver driver, By by) {
-        try {
-            driver.findElement(by);
-            return true;
-        } catch (NoSuchElementException e) {
-            return false;
-        }
+        return WaitStrategy.isPresent(driver, by);
     }
     
     /**
@@ -187,7 +128,11 @@ public class TestUtils {
         while (attempts < 3) {
             try {
                 waitForElementClickable(driver, element, configManager.getIntProperty("timeout", 10));
-                highlightElement(driver, element);
+                if (InteractionMode.isHighlightEnabled()) {
+                    highlightElement(driver, element);
+                } else {
+                    InteractionMode.recordSkippedHighlight();
+                }
                 element.click();
                 return;
             } catch (StaleElementReferenceException | ElementClickInterceptedException e) {
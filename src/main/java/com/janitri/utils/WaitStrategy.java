@@ -0,0 +1,137 @@
+package com.janitri.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides how element lookups wait.
+ * With waitStrategy=explicit (the default) drivers have no implicit wait, so explicit WebDriverWaits
+ * do not stack with it and absent elements are reported after a short grace period
+ * (absenceGraceMs) instead of the full implicit timeout. waitStrategy=implicit restores the old behaviour.
+ */
+public class WaitStrategy {
+    private static final ConfigManager configManager = ConfigManager.getInstance();
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    // Statistics
+    private static final LongAdder negativeLookups = new LongAdder();
+    private static final LongAdder savedMillis = new LongAdder();
+
+    /**
+     * Check whether drivers are configured with an implicit wait
+     * @return true for waitStrategy=implicit
+     */
+    public static boolean isImplicitWaitEnabled() {
+        return "implicit".equalsIgnoreCase(configManager.getProperty("waitStrategy", "explicit"));
+    }
+
+    /**
+     * Get the implicit wait to configure on new drivers
+     * @return The timeout property in implicit mode, zero otherwise
+     */
+    public static Duration getImplicitWait() {
+        return isImplicitWaitEnabled() ? getConfiguredTimeout() : Duration.ZERO;
+    }
+
+    private static Duration getConfiguredTimeout() {
+        return Duration.ofSeconds(configManager.getIntProperty("timeout", 10));
+    }
+
+    /**
+     * Get the grace period given to elements that are not in the DOM yet
+     * @return Grace period
+     */
+    public static Duration getGracePeriod() {
+        return Duration.ofMillis(configManager.getIntProperty("absenceGraceMs", 300));
+    }
+
+    /**
+     * Find all elements matching a locator, waiting at most the grace period for the first one to appear
+     * @param context Driver or element to search in
+     * @param by Locator
+     * @return Matching elements, empty if there are none
+     */
+    public static List<WebElement> findAll(SearchContext context, By by) {
+        if (isImplicitWaitEnabled()) {
+            // findElements already waited for the implicit timeout
+            return context.findElements(by);
+        }
+
+        long graceMillis = getGracePeriod().toMillis();
+        long start = System.currentTimeMillis();
+        while (true) {
+            List<WebElement> elements = context.findElements(by);
+            long elapsed = System.currentTimeMillis() - start;
+            if (!elements.isEmpty()) {
+                return elements;
+            }
+            if (elapsed >= graceMillis) {
+                negativeLookups.increment();
+                savedMillis.add(Math.max(0, getConfiguredTimeout().toMillis() - elapsed));
+                return elements;
+            }
+            try {
+                Thread.sleep(Math.min(POLL_INTERVAL_MILLIS, graceMillis - elapsed));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return elements;
+            }
+        }
+    }
+
+    /**
+     * Find the first element matching a locator without failing when it is absent
+     * @param context Driver or element to search in
+     * @param by Locator
+     * @return First matching element, or null if there is none after the grace period
+     */
+    public static WebElement findIfPresent(SearchContext context, By by) {
+        List<WebElement> elements = findAll(context, by);
+        return elements.isEmpty() ? null : elements.get(0);
+    }
+
+    /**
+     * Check if an element is in the DOM
+     * @param context Driver or element to search in
+     * @param by Locator
+     * @return true if the element is present
+     */
+    public static boolean isPresent(SearchContext context, By by) {
+        return !findAll(context, by).isEmpty();
+    }
+
+    /**
+     * Check if an element is present and displayed
+     * @param context Driver or element to search in
+     * @param by Locator
+     * @return true if the first matching element is displayed
+     */
+    public static boolean isDisplayed(SearchContext context, By by) {
+        WebElement element = findIfPresent(context, by);
+        try {
+            return element != null && element.isDisplayed();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Record how much implicit waiting the absence checks avoided in the report and reset the counters
+     * @param reportManager ReportManager to record metrics in
+     */
+    public static void recordMetrics(ReportManager reportManager) {
+        long lookups = negativeLookups.sumThenReset();
+        long saved = savedMillis.sumThenReset();
+        if (lookups == 0) {
+            return;
+        }
+        reportManager.addFrameworkMetric("Implicit wait avoided", String.format(
+                "~%.1f s over %d absence checks (grace period %d ms)",
+                saved / 1000.0, lookups, getGracePeriod().toMillis()));
+    }
+}
@@ -3,17 +3,17 @@ package com.janitri.tests;
 import com.janitri.pages.LoginPage;
 import com.janitri.utils.AccessibilityUtils;
 import com.janitri.utils.ConfigManager;
-import com.janitri.utils.ReportManager;
 import com.janitri.utils.TestUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
-import org.testng.ITestResult;
-import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -138,8 +138,9 @@ public class AccessibilityTest extends BaseTest {
         TestUtils.waitForPageLoad(driver);
 
         // Check if error message has proper ARIA attributes
-        WebElement errorMessage = driver
-                .findElement(By.xpath("//div[contains(@class, 'error') or contains(@class, 'alert')]"));
+        WebElement errorMessage = new WebDriverWait(driver, Duration.ofSeconds(configManager.getIntProperty("timeout", 10)))
+                .until(ExpectedConditions.presenceOfElementLocated(
+                        By.xpath("//div[contains(@class, 'error') or contains(@class, 'alert')]")));
         if (errorMessage.isDisplayed()) {
             Assert.assertTrue(errorMessage.getAttribute("role") != null ||
                     errorMessage.getAttribute("aria-live") != null,
@@ -197,10 +198,4 @@ public class AccessibilityTest extends BaseTest {
 
         Assert.assertFalse(hasContrastIssue, "Login button should have sufficient color contrast");
     }
-
-    @AfterMethod
-    public void tearDownTest(ITestResult result) {
-        // Add test result to report manager
-        ReportManager.getInstance().addTestResult(result.getName(), result, driver);
-    }
 }
\ No newline at end of file
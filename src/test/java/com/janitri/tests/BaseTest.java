@@ -1,8 +1,10 @@
 package com.janitri.tests;
 
+import com.janitri.pages.BasePage;
 import com.janitri.utils.ConfigManager;
 import com.janitri.utils.DriverFactory;
 import com.janitri.utils.ReportManager;
+import com.janitri.utils.TestContext;
 import com.janitri.utils.TestUtils;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestResult;
@@ -10,18 +12,22 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.AfterSuite;
+import org.testng.annotations.Listeners;
 
 /**
- * Base test class that handles browser setup and teardown
+ * Base test class that handles browser setup and teardown.
+ * The driver field is a thread-bound handle, so test methods of one instance can run in parallel
+ * with each thread working on its own browser session. Results are recorded by {@link ResultCollector}.
  */
+@Listeners(ResultCollector.class)
 public class BaseTest {
-    protected WebDriver driver;
-    protected ConfigManager configManager;
+    protected final WebDriver driver = DriverFactory.getThreadBoundDriver();
+    protected ConfigManager configManager = ConfigManager.getInstance();
     protected String baseUrl;
 
     /**
      * Setup method that runs before the test suite
-     * Initializes the ConfigManager and ReportManager
+     * Initializes the ConfigManager and ReportManager and starts pre-warming browser sessions
      */
     @BeforeSuite
     public void setUpSuite() {
@@ -30,56 +36,76 @@ public class BaseTest {
 
         // Initialize ReportManager
         ReportManager.getInstance().initReports();
+
+        // Start pre-warming unless SessionPrewarmListener already did
+        DriverFactory.prewarmSessions();
     }
 
     /**
      * Setup method that runs before each test method
-     * Initializes the WebDriver and navigates to the base URL
+     * Acquires a WebDriver for the current thread from the driver pool and navigates to the base URL
      */
     @BeforeMethod
-    public void setUp() {
+    public void setUp(ITestResult result) {
+        // Attribute WebDriver commands and generated test data on this thread to the test invocation
+        TestContext.begin(ResultCollector.testId(result));
+
         // Get configuration values
-        String browser = configManager.getProperty("browser", "chrome");
         baseUrl = configManager.getProperty("baseUrl", "https://dev-dash.janitri.in/");
-        boolean headless = configManager.getBooleanProperty("headless", false);
 
-        // Initialize the driver using DriverFactory
-        driver = DriverFactory.createDriver(browser, headless);
+        // Acquire the driver from the pool (a fresh launch in pass-through mode)
+        DriverFactory.acquireDriver();
+
+        // Skip analytics, fonts and large media for suites that do not need them
+        boolean blocking = blockNonEssentialRequests()
+                && configManager.getBooleanProperty("requestBlocking", true)
+                && DriverFactory.applyRequestBlocking();
+
+        // Pre-warmed sessions already have the application loaded
+        if (!baseUrl.equals(DriverFactory.takePreloadedUrl())) {
+            long navigationStart = System.currentTimeMillis();
 
-        // Navigate to the application URL
-        driver.get(baseUrl);
+            // Navigate to the application URL
+            driver.get(baseUrl);
+
+            // Wait for page to load
+            TestUtils.waitForPageLoad(driver);
+            DriverFactory.recordNavigation(System.currentTimeMillis() - navigationStart);
+        }
+    }
 
-        // Wait for page to load
-        TestUtils.waitForPageLoad(driver);
+    /**
+     * Whether this suite can run with non-essential requests (analytics, fonts, large media,
+     * third-party scripts) blocked. Functional suites override this; the requestBlocking property
+     * switches blocking off globally.
+     * @return true to block the blockedUrlPatterns during this suite's tests
+     */
+    protected boolean blockNonEssentialRequests() {
+        return false;
     }
 
     /**
      * Teardown method that runs after each test method
-     * Captures screenshot on failure if configured and quits the WebDriver instance
+     * Returns the WebDriver to the pool; the result has already been recorded by ResultCollector
      */
     @AfterMethod
-    public void tearDown(ITestResult result) {
-        // Capture screenshot on failure if configured
-        boolean screenshotOnFailure = configManager.getBooleanProperty("screenshotOnFailure", true);
-        if (screenshotOnFailure && result.getStatus() == ITestResult.FAILURE) {
-            TestUtils.takeScreenshot(driver, result.getName());
-        }
-
-        // Add test result to report manager
-        ReportManager.getInstance().addTestResult(result.getName(), result, driver);
-
-        // Quit the driver
-        if (driver != null) {
-            driver.quit();
-        }
+    public void tearDown() {
+        // Return the current thread's driver to the pool (quits it in pass-through mode)
+        DriverFactory.releaseDriver();
+        TestContext.end();
     }
 
     /**
      * Teardown method that runs after the test suite
-     * Generates reports
+     * Shuts down the driver pool and generates reports
      */
     @AfterSuite
     public void tearDownSuite() {
+        // Quit pooled sessions and record pool statistics
+        DriverFactory.shutdown();
+        BasePage.recordMetrics(ReportManager.getInstance());
+        ResultCollector.recordMetrics(ReportManager.getInstance());
+
         // Generate reports
         ReportManager.getInstance().generateReports();
     }
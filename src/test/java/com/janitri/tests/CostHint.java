@@ -0,0 +1,19 @@
+package com.janitri.tests;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Estimated duration of a test method, used by LongestFirstInterceptor until the test history
+ * has recorded real durations for it.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CostHint {
+    /**
+     * @return Estimated duration in milliseconds
+     */
+    long value();
+}
@@ -2,33 +2,58 @@ package com.janitri.tests;
 
 import com.janitri.pages.LoginPage;
 import com.janitri.utils.ConfigManager;
-import com.janitri.utils.ReportManager;
+import com.janitri.utils.TestDataGenerator;
 import com.janitri.utils.TestUtils;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebElement;
 import org.testng.Assert;
-import org.testng.ITestResult;
-import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
 /**
  * Data validation tests for the Janitri Dashboard login page
  */
 public class DataValidationTest extends BaseTest {
-    private LoginPage loginPage;
-    private ConfigManager configManager;
+    // Longest local part of an email address
+    private static final int USER_ID_LENGTH_LIMIT = 64;
+    private static final int PASSWORD_MIN_LENGTH = 8;
+
+    // Page objects are confined to the thread running the method, like the driver handle
+    private final ThreadLocal<LoginPage> loginPages = new ThreadLocal<>();
+
+    /**
+     * Data validation tests do not need analytics, fonts or large media
+     */
+    @Override
+    protected boolean blockNonEssentialRequests() {
+        return true;
+    }
 
     @BeforeMethod
     public void setupTest() {
-        loginPage = new LoginPage(driver);
-        configManager = ConfigManager.getInstance();
+        loginPages.set(new LoginPage(driver));
+    }
+
+    private LoginPage loginPage() {
+        return loginPages.get();
     }
 
-    @DataProvider(name = "invalidUserIds")
-    public Object[][] getInvalidUserIds() {
-        return new Object[][] {
+    /**
+     * Invalid user IDs. With invalidDataBatchSize set, followed by boundary strings around the email length
+     * limit and that many generated user names, emails without a domain and phone numbers, none of which
+     * is a valid email address. Generated values other than the unique emails replay from the test data seed.
+     */
+    @DataProvider(name = "invalidUserIds", parallel = true)
+    public Iterator<Object[]> getInvalidUserIds() {
+        TestDataGenerator generator = TestDataGenerator.forStream("invalidUserIds");
+        Object[][] cases = {
             {""}, // Empty
             {"a"}, // Too short
             {"notanemail"}, // No @ symbol
@@ -37,13 +62,25 @@ public class DataValidationTest extends BaseTest {
             {"special!chars#@domain.com"}, // Special characters
             {"spaces @domain.com"}, // Spaces
             {"double@@domain.com"}, // Double @ symbol
-            {TestUtils.generateRandomString(100) + "@domain.com"} // Too long
+            {generator.randomString(100) + "@domain.com"} // Too long
         };
+        return Stream.concat(Arrays.stream(cases), generatedRows(generator, USER_ID_LENGTH_LIMIT,
+                g -> g.randomString(8),
+                g -> {
+                    String email = g.uniqueEmail();
+                    return email.substring(0, email.indexOf('@') + 1);
+                },
+                TestDataGenerator::randomPhoneNumber)).iterator();
     }
 
-    @DataProvider(name = "invalidPasswords")
-    public Object[][] getInvalidPasswords() {
-        return new Object[][] {
+    /**
+     * Invalid passwords. With invalidDataBatchSize set, followed by boundary strings up to one character past
+     * the minimum length and that many generated passwords that are too short or lack special characters.
+     */
+    @DataProvider(name = "invalidPasswords", parallel = true)
+    public Iterator<Object[]> getInvalidPasswords() {
+        TestDataGenerator generator = TestDataGenerator.forStream("invalidPasswords");
+        Object[][] cases = {
             {""}, // Empty
             {"a"}, // Too short
             {"12345"}, // Too short, only numbers
@@ -52,35 +89,60 @@ public class DataValidationTest extends BaseTest {
             {"abcABC"}, // No numbers or special chars
             {"abc123"}, // No uppercase or special chars
             {"ABC123"}, // No lowercase or special chars
-            {TestUtils.generateRandomString(100)} // Too long
+            {generator.randomString(100)} // Too long
         };
+        return Stream.concat(Arrays.stream(cases), generatedRows(generator, PASSWORD_MIN_LENGTH - 1,
+                g -> g.randomString(5),
+                g -> g.randomString(PASSWORD_MIN_LENGTH + 4))).iterator();
+    }
+
+    /**
+     * Generate invalidDataBatchSize rows, cycling through the given kinds of value, preceded by the
+     * boundary strings around a length limit. Rows are produced lazily as TestNG consumes them.
+     * @param generator Generator of the data provider
+     * @param lengthLimit Length limit for the boundary strings
+     * @param kinds Kinds of invalid value
+     * @return Rows, empty if invalidDataBatchSize is 0
+     */
+    @SafeVarargs
+    private static Stream<Object[]> generatedRows(TestDataGenerator generator, int lengthLimit,
+            Function<TestDataGenerator, String>... kinds) {
+        int batchSize = Math.max(0, ConfigManager.getInstance().getIntProperty("invalidDataBatchSize", 0));
+        if (batchSize == 0) {
+            return Stream.empty();
+        }
+        Stream<Object[]> boundaries = generator.boundaryStrings(lengthLimit).stream()
+                .map(value -> new Object[] {value});
+        Stream<Object[]> batch = IntStream.range(0, batchSize)
+                .mapToObj(i -> new Object[] {kinds[i % kinds.length].apply(generator)});
+        return Stream.concat(boundaries, batch);
     }
 
     @Test(dataProvider = "invalidUserIds", description = "Test validation of invalid user IDs")
     public void testInvalidUserIdValidation(String invalidUserId) {
         // Clear fields
-        loginPage.clearUserId();
-        loginPage.clearPassword();
+        loginPage().clearUserId();
+        loginPage().clearPassword();
         
         // Enter invalid user ID
-        loginPage.enterUserId(invalidUserId);
+        loginPage().enterUserId(invalidUserId);
         
         // Enter valid password to isolate user ID validation
-        loginPage.enterPassword("ValidPassword123!");
+        loginPage().enterPassword("ValidPassword123!");
         
         // Check if login button is disabled or if validation error is shown
         boolean validationWorking = false;
         
         // Check if button is disabled
-        if (!loginPage.isLoginButtonEnabled()) {
+        if (!loginPage().isLoginButtonEnabled()) {
             validationWorking = true;
         } else {
             // If button is enabled, try to click it and check for validation error
-            loginPage.clickLoginButton();
+            loginPage().clickLoginButton();
             TestUtils.waitForPageLoad(driver);
             
             // Check for error message
-            String errorMsg = loginPage.getErrorMessage();
+            String errorMsg = loginPage().getErrorMessage();
             if (errorMsg != null && !errorMsg.isEmpty()) {
                 validationWorking = true;
                 System.out.println("Error message for invalid user ID '" + invalidUserId + "': " + errorMsg);
@@ -88,7 +150,7 @@ public class DataValidationTest extends BaseTest {
             
             // Check for HTML5 validation message
             String validationMessage = (String) ((JavascriptExecutor) driver)
-                .executeScript("return arguments[0].validationMessage;", loginPage.getUserIdField());
+                .executeScript("return arguments[0].validationMessage;", loginPage().getUserIdField());
             
             if (validationMessage != null && !validationMessage.isEmpty()) {
                 validationWorking = true;
@@ -103,28 +165,28 @@ public class DataValidationTest extends BaseTest {
     @Test(dataProvider = "invalidPasswords", description = "Test validation of invalid passwords")
     public void testInvalidPasswordValidation(String invalidPassword) {
         // Clear fields
-        loginPage.clearUserId();
-        loginPage.clearPassword();
+        loginPage().clearUserId();
+        loginPage().clearPassword();
         
         // Enter valid user ID to isolate password validation
-        loginPage.enterUserId("valid@example.com");
+        loginPage().enterUserId("valid@example.com");
         
         // Enter invalid password
-        loginPage.enterPassword(invalidPassword);
+        loginPage().enterPassword(invalidPassword);
         
         // Check if login button is disabled or if validation error is shown
         boolean validationWorking = false;
         
         // Check if button is disabled
-        if (!loginPage.isLoginButtonEnabled()) {
+        if (!loginPage().isLoginButtonEnabled()) {
             validationWorking = true;
         } else {
             // If button is enabled, try to click it and check for validation error
-            loginPage.clickLoginButton();
+            loginPage().clickLoginButton();
             TestUtils.waitForPageLoad(driver);
             
             // Check for error message
-            String errorMsg = loginPage.getErrorMessage();
+            String errorMsg = loginPage().getErrorMessage();
             if (errorMsg != null && !errorMsg.isEmpty()) {
                 validationWorking = true;
                 System.out.println("Error message for invalid password '" + invalidPassword + "': " + errorMsg);
@@ -132,7 +194,7 @@ public class DataValidationTest extends BaseTest {
             
             // Check for HTML5 validation message
             String validationMessage = (String) ((JavascriptExecutor) driver)
-                .executeScript("return arguments[0].validationMessage;", loginPage.getPasswordField());
+                .executeScript("return arguments[0].validationMessage;", loginPage().getPasswordField());
             
             if (validationMessage != null && !validationMessage.isEmpty()) {
                 validationWorking = true;
@@ -147,7 +209,7 @@ public class DataValidationTest extends BaseTest {
     @Test(description = "Test maximum length constraints")
     public void testMaxLengthConstraints() {
         // Get user ID field
-        WebElement userIdField = loginPage.getUserIdField();
+        WebElement userIdField = loginPage().getUserIdField();
         
         // Check if maxlength attribute is set
         String userIdMaxLength = userIdField.getAttribute("maxlength");
@@ -157,7 +219,7 @@ public class DataValidationTest extends BaseTest {
             
             // Try to enter a string longer than maxlength
             String longInput = TestUtils.generateRandomString(maxLength + 10);
-            loginPage.enterUserId(longInput);
+            loginPage().enterUserId(longInput);
             
             // Check if input was truncated
             String actualValue = userIdField.getAttribute("value");
@@ -168,7 +230,7 @@ public class DataValidationTest extends BaseTest {
             
             // Try with a very long input
             String longInput = TestUtils.generateRandomString(1000);
-            loginPage.enterUserId(longInput);
+            loginPage().enterUserId(longInput);
             
             // Check if input was accepted (this is just informational)
             String actualValue = userIdField.getAttribute("value");
@@ -176,7 +238,7 @@ public class DataValidationTest extends BaseTest {
         }
         
         // Get password field
-        WebElement passwordField = loginPage.getPasswordField();
+        WebElement passwordField = loginPage().getPasswordField();
         
         // Check if maxlength attribute is set
         String passwordMaxLength = passwordField.getAttribute("maxlength");
@@ -186,7 +248,7 @@ public class DataValidationTest extends BaseTest {
             
             // Try to enter a string longer than maxlength
             String longInput = TestUtils.generateRandomString(maxLength + 10);
-            loginPage.enterPassword(longInput);
+            loginPage().enterPassword(longInput);
             
             // Check if input was truncated
             String actualValue = passwordField.getAttribute("value");
@@ -197,7 +259,7 @@ public class DataValidationTest extends BaseTest {
             
             // Try with a very long input
             String longInput = TestUtils.generateRandomString(1000);
-            loginPage.enterPassword(longInput);
+            loginPage().enterPassword(longInput);
             
             // Check if input was accepted (this is just informational)
             String actualValue = passwordField.getAttribute("value");
@@ -211,20 +273,20 @@ public class DataValidationTest extends BaseTest {
         String scriptInput = "<script>alert('XSS')</script>";
         
         // Enter script in user ID field
-        loginPage.clearUserId();
-        loginPage.enterUserId(scriptInput);
+        loginPage().clearUserId();
+        loginPage().enterUserId(scriptInput);
         
         // Check if the value was sanitized or escaped
-        String userIdValue = loginPage.getUserIdField().getAttribute("value");
+        String userIdValue = loginPage().getUserIdField().getAttribute("value");
         boolean userIdSanitized = !userIdValue.equals(scriptInput) || 
                                  !driver.getPageSource().contains("<script>alert('XSS')</script>");
         
         // Enter script in password field
-        loginPage.clearPassword();
-        loginPage.enterPassword(scriptInput);
+        loginPage().clearPassword();
+        loginPage().enterPassword(scriptInput);
         
         // Check if the value was sanitized or escaped
-        String passwordValue = loginPage.getPasswordField().getAttribute("value");
+        String passwordValue = loginPage().getPasswordField().getAttribute("value");
         boolean passwordSanitized = !passwordValue.equals(scriptInput) || 
                                    !driver.getPageSource().contains("<script>alert('XSS')</script>");
         
@@ -244,19 +306,19 @@ public class DataValidationTest extends BaseTest {
         String passwordWithWhitespace = "  password123  ";
         
         // Enter values with whitespace
-        loginPage.clearUserId();
-        loginPage.enterUserId(userIdWithWhitespace);
+        loginPage().clearUserId();
+        loginPage().enterUserId(userIdWithWhitespace);
         
-        loginPage.clearPassword();
-        loginPage.enterPassword(passwordWithWhitespace);
+        loginPage().clearPassword();
+        loginPage().enterPassword(passwordWithWhitespace);
         
         // Try to login
-        loginPage.clickLoginButton();
+        loginPage().clickLoginButton();
         TestUtils.waitForPageLoad(driver);
         
         // Check if whitespace was trimmed (this is a best practice)
         // We can only check this indirectly by seeing if login succeeds or fails with a specific error
-        String errorMsg = loginPage.getErrorMessage();
+        String errorMsg = loginPage().getErrorMessage();
         
         // Log the result
         if (errorMsg != null && !errorMsg.isEmpty()) {
@@ -271,10 +333,4 @@ public class DataValidationTest extends BaseTest {
         System.out.println("Note: Best practice is to trim whitespace from user input, "
             + "especially for credentials like email addresses.");
     }
-
-    @AfterMethod
-    public void tearDownTest(ITestResult result) {
-        // Add test result to report manager
-        ReportManager.getInstance().addTestResult(result.getName(), result, driver);
-    }
 }
\ No newline at end of file
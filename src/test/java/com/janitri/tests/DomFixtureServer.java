@@ -0,0 +1,95 @@
+package com.janitri.tests;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded HTTP server serving generated login pages of a given DOM size for locator benchmarks.
+ * GET /fixture?nodes=N returns a dashboard-like page with about N filler elements; the login form
+ * comes last so that document-order searches have to walk the whole tree.
+ */
+public class DomFixtureServer implements AutoCloseable {
+    private static final int NODES_PER_ROW = 10;
+
+    private final HttpServer server;
+    private final Map<Integer, byte[]> pages = new ConcurrentHashMap<>();
+
+    /**
+     * Start the server on a free local port
+     * @throws IOException if the server cannot be started
+     */
+    public DomFixtureServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/fixture", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            int nodes = 1000;
+            if (query != null && query.startsWith("nodes=")) {
+                try {
+                    nodes = Integer.parseInt(query.substring("nodes=".length()));
+                } catch (NumberFormatException e) {
+                    // Keep the default size
+                }
+            }
+            byte[] body = pages.computeIfAbsent(nodes, DomFixtureServer::generatePage);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Get the URL of a fixture page
+     * @param nodes Approximate number of elements on the page
+     * @return Fixture URL
+     */
+    public String getFixtureUrl(int nodes) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/fixture?nodes=" + nodes;
+    }
+
+    /**
+     * Generate a page with filler rows that resemble a dashboard table, followed by the login form
+     * @param nodes Approximate number of filler elements
+     * @return Page HTML
+     */
+    private static byte[] generatePage(int nodes) {
+        StringBuilder html = new StringBuilder(nodes * 60);
+        html.append("<!DOCTYPE html><html lang=\"en\"><head><title>Fixture ").append(nodes)
+                .append("</title></head><body><div class=\"dashboard\"><table class=\"patients\">");
+        for (int row = 0; row < nodes / NODES_PER_ROW; row++) {
+            html.append("<tr class=\"row\" data-row=\"").append(row).append("\">")
+                    .append("<td><span class=\"label\">Patient ").append(row).append("</span></td>")
+                    .append("<td><a href=\"/patients/").append(row).append("\">Open record</a></td>")
+                    .append("<td><div class=\"status\">Monitoring</div></td>")
+                    .append("<td><button class=\"action\">Details</button></td>")
+                    .append("</tr>");
+        }
+        html.append("</table></div>")
+                .append("<h1>Janitri Login</h1>")
+                .append("<form method=\"post\" action=\"/login\" autocomplete=\"off\">")
+                .append("<input id=\"userId\" name=\"userId\" type=\"text\">")
+                .append("<input id=\"password\" name=\"password\" type=\"password\">")
+                .append("<button type=\"button\" class=\"password-toggle\">Show</button>")
+                .append("<input type=\"checkbox\" id=\"remember-me\" name=\"remember\">")
+                .append("<button type=\"submit\">Login</button>")
+                .append("</form>")
+                .append("<div class=\"error-message\">Invalid credentials</div>")
+                .append("<a href=\"/forgot-password\">Forgot Password?</a>")
+                .append("<a href=\"/register\">Sign up</a>")
+                .append("</body></html>");
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,221 @@
+package com.janitri.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.janitri.pages.LoginPage;
+import com.janitri.utils.ConfigManager;
+import com.janitri.utils.DomConditions;
+import com.janitri.utils.DriverFactory;
+import com.janitri.utils.TestUtils;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmarks the LoginPage locators against equivalent CSS/id locators on generated pages of
+ * increasing size, served locally and loaded in headless Chrome.
+ * Results are written to locator-benchmark.html and locator-benchmark.json in the report directory.
+ * Run with: mvn test -Pbenchmark
+ */
+public class LocatorBenchmarkTest {
+    private static final int WARMUP_ITERATIONS = 3;
+
+    // CSS/id equivalents of the LoginPage locators, matching the same fixture elements
+    private static final Map<String, By> CSS_EQUIVALENTS = new LinkedHashMap<>();
+    static {
+        CSS_EQUIVALENTS.put(LoginPage.USER_ID_INPUT, By.cssSelector("input#userId"));
+        CSS_EQUIVALENTS.put(LoginPage.PASSWORD_INPUT, By.cssSelector("input#password"));
+        CSS_EQUIVALENTS.put(LoginPage.LOGIN_BUTTON, By.cssSelector("form button[type='submit']"));
+        CSS_EQUIVALENTS.put(LoginPage.PASSWORD_VISIBILITY_TOGGLE, By.cssSelector(".password-toggle, .eye-icon"));
+        CSS_EQUIVALENTS.put(LoginPage.ERROR_MESSAGE, By.cssSelector("div.error-message, div.alert"));
+        CSS_EQUIVALENTS.put(LoginPage.PAGE_TITLE, By.tagName("h1"));
+        CSS_EQUIVALENTS.put(LoginPage.FORGOT_PASSWORD_LINK, By.cssSelector("a[href*='forgot']"));
+        CSS_EQUIVALENTS.put(LoginPage.REMEMBER_ME_CHECKBOX,
+                By.cssSelector("input[type='checkbox'][id*='remember'], input[type='checkbox'][name*='remember']"));
+        CSS_EQUIVALENTS.put(LoginPage.SIGN_UP_LINK, By.cssSelector("a[href*='register'], a[href*='signup']"));
+        CSS_EQUIVALENTS.put(LoginPage.LOGIN_FORM, By.cssSelector("form:has(#userId, #password)"));
+    }
+
+    // Runs a locator in the page repeatedly and returns the mean evaluation time in milliseconds
+    private static final String IN_PAGE_SCRIPT =
+            "var spec = arguments[0], iterations = arguments[1];"
+            + "function run() {"
+            + "  switch (spec.using) {"
+            + "    case 'id': return document.getElementById(spec.value) ? 1 : 0;"
+            + "    case 'tag name': return document.getElementsByTagName(spec.value).length;"
+            + "    case 'class name': return document.getElementsByClassName(spec.value).length;"
+            + "    case 'name': return document.getElementsByName(spec.value).length;"
+            + "    case 'xpath': return document.evaluate(spec.value, document, null,"
+            + "        XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;"
+            + "    default: return document.querySelectorAll(spec.value).length;"
+            + "  }"
+            + "}"
+            + "var start = performance.now();"
+            + "for (var i = 0; i < iterations; i++) run();"
+            + "return (performance.now() - start) / iterations;";
+
+    private final ConfigManager configManager = ConfigManager.getInstance();
+    private final List<Map<String, Object>> results = new ArrayList<>();
+    private DomFixtureServer server;
+    private WebDriver driver;
+
+    @BeforeClass
+    public void setUpBenchmark() throws IOException {
+        server = new DomFixtureServer();
+        try {
+            // Unprofiled, so the profiler's per-command overhead does not skew the measured latencies
+            driver = DriverFactory.createDriver("chrome", true, false);
+        } catch (Exception e) {
+            server.close();
+            throw new SkipException("Headless Chrome is not available: " + e.getMessage());
+        }
+    }
+
+    @DataProvider(name = "nodeCounts")
+    public Object[][] nodeCounts() {
+        String counts = configManager.getProperty("benchmarkNodeCounts", "1000,10000,50000,200000");
+        return Arrays.stream(counts.split(","))
+                .map(String::trim)
+                .filter(count -> !count.isEmpty())
+                .map(count -> new Object[] {Integer.parseInt(count)})
+                .toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "nodeCounts", description = "Compare LoginPage locators with CSS/id equivalents")
+    public void benchmarkLocators(int nodes) {
+        driver.get(server.getFixtureUrl(nodes));
+        TestUtils.waitForPageLoad(driver);
+        int iterations = configManager.getIntProperty("benchmarkIterations", 15);
+
+        LoginPage loginPage = new LoginPage(driver);
+        for (Map.Entry<String, By> locator : loginPage.getLocators().entrySet()) {
+            Map<String, Object> current = measure(nodes, locator.getKey(), "LoginPage", locator.getValue(), iterations);
+            By equivalent = CSS_EQUIVALENTS.get(locator.getKey());
+            if (equivalent == null) {
+                continue;
+            }
+            Map<String, Object> candidate = measure(nodes, locator.getKey(), "CSS/id", equivalent, iterations);
+            Assert.assertEquals(candidate.get("matches"), current.get("matches"),
+                    "CSS/id equivalent of " + locator.getKey() + " should match the same elements");
+        }
+    }
+
+    /**
+     * Measure a locator's WebDriver find latency and its in-page evaluation time
+     * @param nodes Fixture size
+     * @param name Locator name
+     * @param strategy Strategy label
+     * @param locator Locator to measure
+     * @param iterations Number of timed iterations
+     * @return Result row
+     */
+    private Map<String, Object> measure(int nodes, String name, String strategy, By locator, int iterations) {
+        int matches = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            matches = driver.findElements(locator).size();
+        }
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            driver.findElements(locator);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+
+        Object inPageMillis = null;
+        Map<String, Object> spec = DomConditions.toLocatorSpec(locator);
+        if (spec != null) {
+            inPageMillis = ((JavascriptExecutor) driver).executeScript(IN_PAGE_SCRIPT, spec, iterations);
+        }
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("nodes", nodes);
+        row.put("locator", name);
+        row.put("strategy", strategy);
+        row.put("selector", locator.toString());
+        row.put("matches", matches);
+        row.put("medianMs", round(samples[samples.length / 2] / 1_000_000.0));
+        row.put("p95Ms", round(samples[Math.min(samples.length - 1, (int) Math.ceil(samples.length * 0.95) - 1)]
+                / 1_000_000.0));
+        row.put("inPageMs", inPageMillis instanceof Number ? round(((Number) inPageMillis).doubleValue()) : null);
+        results.add(row);
+        return row;
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 1000) / 1000.0;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDownBenchmark() throws IOException {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (server != null) {
+            server.close();
+        }
+        if (results.isEmpty()) {
+            return;
+        }
+
+        Path reportDir = Paths.get(configManager.getProperty("reportDir", "test-reports"));
+        Files.createDirectories(reportDir);
+        new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(reportDir.resolve("locator-benchmark.json").toFile(), results);
+        writeHtmlTable(reportDir.resolve("locator-benchmark.html"));
+        System.out.println("Locator benchmark written to: " + reportDir.resolve("locator-benchmark.json"));
+    }
+
+    /**
+     * Write the results as an HTML table and echo them to the console
+     * @param path HTML file to write
+     * @throws IOException if writing fails
+     */
+    private void writeHtmlTable(Path path) throws IOException {
+        String[] columns = {"nodes", "locator", "strategy", "matches", "medianMs", "p95Ms", "inPageMs", "selector"};
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("<!DOCTYPE html>\n<html>\n<head>\n  <title>Locator Benchmark</title>\n" +
+                    "  <style>\n" +
+                    "    body { font-family: Arial, sans-serif; margin: 20px; }\n" +
+                    "    table { border-collapse: collapse; width: 100%; }\n" +
+                    "    th, td { border: 1px solid #ddd; padding: 8px; text-align: left; }\n" +
+                    "    th { background-color: #f2f2f2; }\n" +
+                    "  </style>\n</head>\n<body>\n<h1>Locator Benchmark</h1>\n<table>\n  <tr>");
+            for (String column : columns) {
+                writer.write("<th>" + column + "</th>");
+            }
+            writer.write("</tr>\n");
+            System.out.println(String.format("%-8s %-26s %-10s %10s %10s %10s",
+                    "nodes", "locator", "strategy", "median ms", "p95 ms", "in-page ms"));
+            for (Map<String, Object> row : results) {
+                writer.write("  <tr>");
+                for (String column : columns) {
+                    Object value = row.get(column);
+                    writer.write("<td>" + (value != null ? value.toString().replace("<", "&lt;") : "N/A") + "</td>");
+                }
+                writer.write("</tr>\n");
+                System.out.println(String.format("%-8s %-26s %-10s %10s %10s %10s", row.get("nodes"),
+                        row.get("locator"), row.get("strategy"), row.get("medianMs"), row.get("p95Ms"),
+                        row.get("inPageMs")));
+            }
+            writer.write("</table>\n</body>\n</html>\n");
+        }
+    }
+}
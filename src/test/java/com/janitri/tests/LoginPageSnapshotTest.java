@@ -0,0 +1,95 @@
+package com.janitri.tests;
+
+import com.janitri.pages.LoginPage;
+import com.janitri.utils.DriverFactory;
+import com.janitri.utils.TestUtils;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Checks that the single-script LoginPage snapshot reports the same values as WebDriver lookups,
+ * on a local fixture page loaded in headless Chrome.
+ */
+public class LoginPageSnapshotTest {
+    private static final String[] FORM_ATTRIBUTES = {"method", "action", "enctype", "autocomplete"};
+
+    private DomFixtureServer server;
+    private WebDriver driver;
+
+    @BeforeClass
+    public void setUpFixture() throws IOException {
+        server = new DomFixtureServer();
+        try {
+            driver = DriverFactory.createDriver("chrome", true, false);
+        } catch (Exception e) {
+            server.close();
+            throw new SkipException("Headless Chrome is not available: " + e.getMessage());
+        }
+    }
+
+    @BeforeMethod
+    public void loadFixture() {
+        driver.get(server.getFixtureUrl(100));
+        TestUtils.waitForPageLoad(driver);
+    }
+
+    @Test(description = "Form attributes from the snapshot resolve the action URL and fill in the enctype default")
+    public void testFormAttributesAreFormProperties() {
+        Map<String, String> attributes = new LoginPage(driver).getFormAttributes();
+
+        Assert.assertEquals(attributes.get("method"), "post");
+        Assert.assertEquals(attributes.get("action"), server.getFixtureUrl(100).replaceFirst("/fixture.*", "/login"));
+        Assert.assertEquals(attributes.get("enctype"), "application/x-www-form-urlencoded");
+        Assert.assertEquals(attributes.get("autocomplete"), "off");
+        assertMatchesWebDriver(attributes);
+    }
+
+    @Test(description = "Form attributes from the snapshot fall back to the defaults of a bare form")
+    public void testFormAttributesDefaultsForBareForm() {
+        ((JavascriptExecutor) driver).executeScript(
+                "var form = document.querySelector('form');"
+                + "['method', 'action', 'enctype', 'autocomplete'].forEach(function(name) {"
+                + "  form.removeAttribute(name);"
+                + "});");
+        Map<String, String> attributes = new LoginPage(driver).getFormAttributes();
+
+        Assert.assertEquals(attributes.get("method"), "get");
+        Assert.assertEquals(attributes.get("action"), driver.getCurrentUrl());
+        Assert.assertEquals(attributes.get("enctype"), "application/x-www-form-urlencoded");
+        Assert.assertEquals(attributes.get("autocomplete"), "on");
+        assertMatchesWebDriver(attributes);
+    }
+
+    /**
+     * Assert that snapshot values equal what WebElement.getAttribute returns for the same form
+     * @param attributes Form attributes from the snapshot
+     */
+    private void assertMatchesWebDriver(Map<String, String> attributes) {
+        WebElement form = driver.findElement(By.tagName("form"));
+        for (String name : FORM_ATTRIBUTES) {
+            Assert.assertEquals(attributes.get(name), form.getAttribute(name),
+                    "Snapshot and WebDriver should agree on form " + name);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDownFixture() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.janitri.tests;
+
+import com.janitri.utils.ConfigManager;
+import com.janitri.utils.TestHistoryStore;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Method interceptor that starts the longest methods of a parallel suite first (longest processing time
+ * scheduling), so that a slow test picked up late does not keep one worker busy after the others are done.
+ * A method's cost is its median duration from the test history (summed over data provider rows), else its
+ * {@link CostHint}, else defaultTestCostMs. With parallel="classes" whole classes are ordered by their total
+ * cost. Suites that do not run in parallel keep their declared order. Register it in the suite XML.
+ */
+public class LongestFirstInterceptor implements IMethodInterceptor {
+    private static Map<String, Long> historyCosts;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ConfigManager configManager = ConfigManager.getInstance();
+        XmlSuite suite = context.getSuite().getXmlSuite();
+        XmlSuite.ParallelMode parallel = suite.getParallel();
+        if (!configManager.getBooleanProperty("longestFirstScheduling", true) || methods.size() < 2
+                || parallel == null || parallel == XmlSuite.ParallelMode.NONE) {
+            return methods;
+        }
+
+        long defaultCost = configManager.getIntProperty("defaultTestCostMs", 2000);
+        Map<String, Long> history = loadHistoryCosts();
+        Map<IMethodInstance, Long> costs = new HashMap<>();
+        Map<Class<?>, Long> classCosts = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            long cost = estimateCost(instance.getMethod(), history, defaultCost);
+            costs.put(instance, cost);
+            classCosts.merge(instance.getMethod().getRealClass(), cost, Long::sum);
+        }
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        Comparator<IMethodInstance> byCost = Comparator.comparingLong(instance -> -costs.get(instance));
+        if (parallel == XmlSuite.ParallelMode.CLASSES || parallel == XmlSuite.ParallelMode.INSTANCES) {
+            ordered.sort(Comparator.comparingLong(
+                    (IMethodInstance instance) -> -classCosts.get(instance.getMethod().getRealClass()))
+                    .thenComparing(instance -> instance.getMethod().getRealClass().getName())
+                    .thenComparing(byCost));
+        } else {
+            ordered.sort(byCost);
+        }
+
+        int workers = Math.max(1, suite.getThreadCount());
+        boolean byClass = parallel == XmlSuite.ParallelMode.CLASSES || parallel == XmlSuite.ParallelMode.INSTANCES;
+        System.out.println(String.format(
+                "Longest-first order for '%s': estimated makespan %.1fs (declared order %.1fs) on %d workers",
+                context.getName(), makespan(ordered, costs, byClass, workers) / 1000.0,
+                makespan(methods, costs, byClass, workers) / 1000.0, workers));
+        return ordered;
+    }
+
+    /**
+     * Estimate how long a method takes
+     * @param method Test method
+     * @param history Median durations by test id
+     * @param defaultCost Cost of methods without history or hint
+     * @return Estimated duration in milliseconds
+     */
+    static long estimateCost(ITestNGMethod method, Map<String, Long> history, long defaultCost) {
+        String testId = method.getRealClass().getSimpleName() + "." + method.getMethodName();
+        Long recorded = history.get(testId);
+        if (recorded == null) {
+            // Data provider rows are recorded as Class.method[index]
+            long rows = 0;
+            String rowPrefix = testId + "[";
+            for (Map.Entry<String, Long> entry : history.entrySet()) {
+                if (entry.getKey().startsWith(rowPrefix)) {
+                    rows += entry.getValue();
+                }
+            }
+            recorded = rows > 0 ? rows : null;
+        }
+        if (recorded != null) {
+            return recorded;
+        }
+        Method javaMethod = method.getConstructorOrMethod().getMethod();
+        CostHint hint = javaMethod != null ? javaMethod.getAnnotation(CostHint.class) : null;
+        return hint != null ? hint.value() : defaultCost;
+    }
+
+    /**
+     * Simulate greedy list scheduling: each method (or class) goes to the first worker that becomes free
+     * @return Estimated time until the last worker finishes, in milliseconds
+     */
+    private static long makespan(List<IMethodInstance> methods, Map<IMethodInstance, Long> costs,
+            boolean byClass, int workers) {
+        Map<Object, Long> units = new LinkedHashMap<>();
+        for (IMethodInstance instance : methods) {
+            Object unit = byClass ? instance.getMethod().getRealClass() : instance;
+            units.merge(unit, costs.get(instance), Long::sum);
+        }
+        PriorityQueue<Long> finishTimes = new PriorityQueue<>(Collections.nCopies(workers, 0L));
+        long makespan = 0;
+        for (long cost : units.values()) {
+            long finish = finishTimes.poll() + cost;
+            finishTimes.add(finish);
+            makespan = Math.max(makespan, finish);
+        }
+        return makespan;
+    }
+
+    /**
+     * Read the median durations of all tests from the history once per JVM
+     * @return Median durations by test id, empty if there is no history
+     */
+    private static synchronized Map<String, Long> loadHistoryCosts() {
+        if (historyCosts == null) {
+            ConfigManager configManager = ConfigManager.getInstance();
+            try {
+                historyCosts = new TestHistoryStore(Paths.get(configManager.getProperty("historyDir", "test-history")))
+                        .medianDurations(configManager.getIntProperty("historyWindow", 20));
+            } catch (IOException e) {
+                System.err.println("Could not read test history, using cost hints: " + e.getMessage());
+                historyCosts = Collections.emptyMap();
+            }
+        }
+        return historyCosts;
+    }
+}
@@ -0,0 +1,89 @@
+package com.janitri.tests;
+
+import com.janitri.utils.ConfigManager;
+import com.janitri.utils.DriverFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Suite listener that sizes parallel suites to the machine they run on.
+ * The session budget is the number of available cores, capped by how many browser sessions fit into
+ * available memory (browserMemoryMb per session); setting parallelThreads overrides the computed value.
+ * The budget is divided by dataProviderThreads to get the worker count, and the driver pool holds
+ * workers x dataProviderThreads sessions, so that parallel data provider rows never wait for a driver.
+ */
+public class ParallelSuiteSizer implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int sessions = computeThreadCount();
+        // TestNG gives every parallel data provider method its own pool of data provider threads, so up to
+        // workers x data provider threads tests hold a browser at once; keep that product within the budget
+        int dataProviderThreads = Math.max(1, Math.min(sessions,
+                ConfigManager.getInstance().getIntProperty("dataProviderThreads", 1)));
+        int threads = Math.max(1, sessions / dataProviderThreads);
+        for (XmlSuite suite : suites) {
+            if (suite.getParallel() == null || suite.getParallel() == XmlSuite.ParallelMode.NONE) {
+                continue;
+            }
+            suite.setThreadCount(threads);
+            suite.setDataProviderThreadCount(dataProviderThreads);
+            System.out.println("Running suite '" + suite.getName() + "' with " + threads + " parallel workers and "
+                    + dataProviderThreads + " data provider threads each");
+        }
+        DriverFactory.reservePoolCapacity(threads * dataProviderThreads);
+    }
+
+    /**
+     * Compute the number of parallel workers from configuration, cores and available memory
+     * @return Worker thread count
+     */
+    static int computeThreadCount() {
+        ConfigManager configManager = ConfigManager.getInstance();
+        int configured = configManager.getIntProperty("parallelThreads", 0);
+        if (configured > 0) {
+            return configured;
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int browserMemoryMb = Math.max(1, configManager.getIntProperty("browserMemoryMb", 600));
+        long availableMemoryMb = getAvailableMemoryMb();
+        int memoryBound = availableMemoryMb > 0 ? (int) (availableMemoryMb / browserMemoryMb) : cores;
+        return Math.max(1, Math.min(cores, memoryBound));
+    }
+
+    /**
+     * Get the memory available for new processes: MemAvailable from /proc/meminfo on Linux, which counts
+     * reclaimable page cache, else the free physical memory the JVM exposes
+     * @return Available memory in megabytes, or -1 if unknown
+     */
+    @SuppressWarnings("deprecation")
+    private static long getAvailableMemoryMb() {
+        Path meminfo = Paths.get("/proc/meminfo");
+        if (Files.isReadable(meminfo)) {
+            try (Stream<String> lines = Files.lines(meminfo)) {
+                Optional<String> available = lines.filter(line -> line.startsWith("MemAvailable:")).findFirst();
+                if (available.isPresent()) {
+                    // Format: "MemAvailable:   12345678 kB"
+                    return Long.parseLong(available.get().replaceAll("[^0-9]", "")) / 1024;
+                }
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Could not read /proc/meminfo: " + e.getMessage());
+            }
+        }
+        java.lang.management.OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) osBean).getFreePhysicalMemorySize() / (1024 * 1024);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,104 @@
+package com.janitri.tests;
+
+import com.janitri.utils.DriverFactory;
+import com.janitri.utils.ReportManager;
+import org.openqa.selenium.WebDriver;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener that records every test result in the ReportManager exactly once.
+ * Results are recorded right after the test method returns, on the test thread while its driver is still
+ * bound, so a failure screenshot is captured once before the driver goes back to the pool; the file itself
+ * is written in the background. Tests that never ran (skipped by a failed dependency or configuration method)
+ * are recorded when TestNG reports the skip. Registered on BaseTest with @Listeners.
+ */
+public class ResultCollector implements IInvokedMethodListener, ITestListener {
+    private static final String RECORDED_ATTRIBUTE = "com.janitri.resultRecorded";
+
+    // Statistics
+    private static final LongAdder recordedResults = new LongAdder();
+    private static final LongAdder failureCaptures = new LongAdder();
+    private static final LongAdder failureCaptureNanos = new LongAdder();
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            record(testResult, boundDriver());
+        }
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        record(result, null);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        record(result, null);
+    }
+
+    /**
+     * Record a result unless it has been recorded already
+     * @param result TestNG test result
+     * @param driver Driver for the failure screenshot, or null
+     */
+    private static void record(ITestResult result, WebDriver driver) {
+        synchronized (result) {
+            if (result.getAttribute(RECORDED_ATTRIBUTE) != null) {
+                return;
+            }
+            result.setAttribute(RECORDED_ATTRIBUTE, Boolean.TRUE);
+        }
+
+        long start = System.nanoTime();
+        ReportManager.getInstance().addTestResult(testId(result), result, driver);
+        recordedResults.increment();
+        if (result.getStatus() == ITestResult.FAILURE && driver != null) {
+            failureCaptures.increment();
+            failureCaptureNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Build the id a result is reported and tracked in the test history under: Class.method, with the
+     * parameter index appended for data-driven invocations so each data row keeps its own history
+     * @param result TestNG test result
+     * @return Test id
+     */
+    static String testId(ITestResult result) {
+        String id = result.getTestClass().getRealClass().getSimpleName() + "." + result.getName();
+        if (result.getParameters().length > 0 && result instanceof org.testng.internal.TestResult) {
+            return id + "[" + ((org.testng.internal.TestResult) result).getParameterIndex() + "]";
+        }
+        return id;
+    }
+
+    private static WebDriver boundDriver() {
+        try {
+            return DriverFactory.getDriver();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Record how many results were collected and how long failure screenshots took in the report
+     * and reset the counters.
+     * @param reportManager ReportManager to record metrics in
+     */
+    public static void recordMetrics(ReportManager reportManager) {
+        long results = recordedResults.sumThenReset();
+        long failures = failureCaptures.sumThenReset();
+        double captureMs = failureCaptureNanos.sumThenReset() / 1_000_000.0;
+        if (results == 0) {
+            return;
+        }
+        reportManager.addFrameworkMetric("Result collection", String.format(
+                "%d results recorded once, %d failure screenshots captured (%.0f ms)", results, failures, captureMs));
+    }
+}
@@ -1,32 +1,43 @@
 package com.janitri.tests;
 
 import com.janitri.pages.LoginPage;
-import com.janitri.utils.ConfigManager;
-import com.janitri.utils.ReportManager;
+import com.janitri.utils.DriverFactory;
+import com.janitri.utils.NetworkRecorder;
 import com.janitri.utils.SecurityUtils;
 import com.janitri.utils.TestUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import org.testng.Assert;
-import org.testng.ITestResult;
-import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Security tests for the Janitri Dashboard login page
  */
 public class SecurityTest extends BaseTest {
-    private LoginPage loginPage;
-    private ConfigManager configManager;
+    private static final String[] SECURITY_HEADERS = {
+        "Content-Security-Policy",
+        "X-Content-Type-Options",
+        "X-Frame-Options",
+        "Strict-Transport-Security",
+        "X-XSS-Protection"
+    };
+
+    // Page objects are confined to the thread running the method, like the driver handle
+    private final ThreadLocal<LoginPage> loginPages = new ThreadLocal<>();
 
     @BeforeMethod
     public void setupTest() {
-        loginPage = new LoginPage(driver);
-        configManager = ConfigManager.getInstance();
+        loginPages.set(new LoginPage(driver));
+    }
+
+    private LoginPage loginPage() {
+        return loginPages.get();
     }
 
     @Test(description = "Test for XSS vulnerabilities in login form")
@@ -37,12 +48,12 @@ public class SecurityTest extends BaseTest {
         }
 
         // Test XSS in user ID field
-        List<String> userIdVulnerabilities = SecurityUtils.testXssVulnerability(driver, loginPage.getUserIdField());
+        List<String> userIdVulnerabilities = SecurityUtils.testXssVulnerability(driver, loginPage().getUserIdField());
         boolean userIdVulnerable = !userIdVulnerabilities.isEmpty();
         String userIdPayload = userIdVulnerable ? userIdVulnerabilities.get(0) : "";
         
         // Test XSS in password field
-        List<String> passwordVulnerabilities = SecurityUtils.testXssVulnerability(driver, loginPage.getPasswordField());
+        List<String> passwordVulnerabilities = SecurityUtils.testXssVulnerability(driver, loginPage().getPasswordField());
         boolean passwordVulnerable = !passwordVulnerabilities.isEmpty();
         String passwordPayload = passwordVulnerable ? passwordVulnerabilities.get(0) : "";
         
@@ -67,7 +78,7 @@ public class SecurityTest extends BaseTest {
 
         // Test SQL injection
         List<String> sqlInjectionVulnerabilities = SecurityUtils.testSqlInjectionVulnerability(
-            driver, loginPage.getUserIdField(), loginPage.getPasswordField(), loginPage.getLoginButton());
+            driver, loginPage().getUserIdField(), loginPage().getPasswordField(), loginPage().getLoginButton());
         
         boolean vulnerable = !sqlInjectionVulnerabilities.isEmpty();
         String payload = vulnerable ? sqlInjectionVulnerabilities.get(0) : "";
@@ -106,7 +117,7 @@ public class SecurityTest extends BaseTest {
     public void testSecurePasswordHandling() {
         // Test that password is not stored in page source
         String testPassword = "TestPassword123!";
-        loginPage.enterPassword(testPassword);
+        loginPage().enterPassword(testPassword);
         
         // Check if password appears in page source
         String pageSource = driver.getPageSource();
@@ -116,7 +127,7 @@ public class SecurityTest extends BaseTest {
         Assert.assertFalse(passwordInSource, "Password should not appear in page source");
         
         // Test that password field has autocomplete="off" or autocomplete="new-password"
-        WebElement passwordField = loginPage.getPasswordField();
+        WebElement passwordField = loginPage().getPasswordField();
         String autocomplete = passwordField.getAttribute("autocomplete");
         
         boolean secureAutocomplete = autocomplete != null && 
@@ -130,28 +141,45 @@ public class SecurityTest extends BaseTest {
 
     @Test(description = "Test for HTTP security headers")
     public void testHttpSecurityHeaders() {
-        // This test requires proxy capabilities or browser dev tools integration
-        // For demonstration, we'll check if the page is served over HTTPS
-        
         String currentUrl = driver.getCurrentUrl();
         boolean isHttps = currentUrl.startsWith("https://");
         
         System.out.println("Current URL: " + currentUrl);
         System.out.println("Is HTTPS: " + isHttps);
         
-        // In a real implementation, you would check for security headers like:
-        // - Content-Security-Policy
-        // - X-Content-Type-Options
-        // - X-Frame-Options
-        // - Strict-Transport-Security
-        // - X-XSS-Protection
+        // Response headers are only visible through DevTools network capture (Chromium browsers)
+        NetworkRecorder recorder = DriverFactory.getNetworkRecorder();
+        if (recorder == null) {
+            System.out.println("Note: Network capture is not available for this browser, "
+                + "so response headers cannot be inspected.");
+            return;
+        }
+        
+        // Reload so the recorder sees the document response
+        driver.navigate().refresh();
+        TestUtils.waitForPageLoad(driver);
         
-        // For demonstration purposes, we'll just log a message
-        System.out.println("Note: A complete HTTP security header test would require proxy capabilities");
-        System.out.println("or browser dev tools integration to inspect response headers.");
+        Optional<NetworkRecorder.NetworkEntry> document = recorder.getMainDocument();
+        Assert.assertTrue(document.isPresent(), "Login page document response should be captured");
+        
+        System.out.println("HTTP Security Header Results (status " + document.get().getStatus() + "):");
+        List<String> missingHeaders = new ArrayList<>();
+        for (String header : SECURITY_HEADERS) {
+            String value = document.get().getResponseHeader(header);
+            System.out.println(header + ": " + (value != null ? value : "MISSING"));
+            if (value == null) {
+                missingHeaders.add(header);
+            }
+        }
+        
+        // Note: This is a soft check as header policies may be enforced by an upstream proxy
+        if (!missingHeaders.isEmpty()) {
+            System.out.println("WARNING: Missing recommended security headers: " + missingHeaders);
+        }
     }
 
     @Test(description = "Test for brute force protection")
+    @CostHint(10000)
     public void testBruteForceProtection() {
         if (!configManager.getBooleanProperty("enableSecurityTests", true)) {
             System.out.println("Security tests are disabled in configuration. Skipping brute force test.");
@@ -165,9 +193,9 @@ public class SecurityTest extends BaseTest {
         
         for (int i = 0; i < attempts; i++) {
             // Clear fields and enter invalid credentials
-            loginPage.enterUserId("test" + i + "@example.com");
-            loginPage.enterPassword("wrongpassword" + i);
-            loginPage.clickLoginButton();
+            loginPage().enterUserId("test" + i + "@example.com");
+            loginPage().enterPassword("wrongpassword" + i);
+            loginPage().clickLoginButton();
             
             // Wait for page to load after login attempt
             TestUtils.waitForPageLoad(driver);
@@ -209,10 +237,4 @@ public class SecurityTest extends BaseTest {
             System.out.println("implement other protection mechanisms not detected by this test.");
         }
     }
-
-    @AfterMethod
-    public void tearDownTest(ITestResult result) {
-        // Add test result to report manager
-        ReportManager.getInstance().addTestResult(result.getName(), result, driver);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.janitri.tests;
+
+import com.janitri.utils.DriverFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Suite listener that starts pre-warming browser sessions as soon as TestNG has parsed the suite files,
+ * so that sessions launch while TestNG is still building the suite instead of in the first test.
+ * Register it in the suite XML; the number of sessions is read from the prewarmSessions property.
+ */
+public class SessionPrewarmListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        DriverFactory.prewarmSessions();
+    }
+}
@@ -0,0 +1,119 @@
+package com.janitri.tests.unit;
+
+import com.janitri.utils.ConfigManager;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the configuration layers of ConfigManager
+ */
+public class ConfigManagerTest {
+    private Path configDirectory;
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        System.clearProperty("configFile");
+        if (configDirectory != null) {
+            try (Stream<Path> files = Files.walk(configDirectory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+            configDirectory = null;
+        }
+        System.clearProperty("reportDir");
+        System.clearProperty("browser");
+        System.clearProperty("performanceThreshold.unitTestProfile");
+        ConfigManager.getInstance().reload();
+    }
+
+    @Test(description = "System properties override keys that no config file defines")
+    public void testSystemPropertyOverridesKeyMissingFromFiles() {
+        System.setProperty("reportDir", "custom-reports");
+        System.setProperty("performanceThreshold.unitTestProfile", "1234");
+        ConfigManager.getInstance().reload();
+
+        Assert.assertEquals(ConfigManager.getInstance().getProperty("reportDir", "test-output"), "custom-reports");
+        Assert.assertEquals(ConfigManager.getInstance().getIntProperty("performanceThreshold.unitTestProfile", 0), 1234);
+    }
+
+    @Test(description = "System properties override keys defined in the config files")
+    public void testSystemPropertyOverridesFileValue() {
+        System.setProperty("browser", "firefox");
+        ConfigManager.getInstance().reload();
+
+        Assert.assertEquals(ConfigManager.getInstance().getProperty("browser"), "firefox");
+    }
+
+    @Test(description = "Keys no layer defines are looked up in the environment by their UPPER_SNAKE_CASE name")
+    public void testEnvironmentFallbackForUndefinedKey() {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            throw new SkipException("PATH is not set in this environment");
+        }
+        Assert.assertEquals(ConfigManager.getInstance().getProperty("path"), path);
+    }
+
+    @Test(description = "Keys defined nowhere return the caller's default")
+    public void testDefaultForUndefinedKey() {
+        ConfigManager configManager = ConfigManager.getInstance();
+        Assert.assertEquals(configManager.getProperty("unitTestUndefinedKey", "fallback"), "fallback");
+        Assert.assertEquals(configManager.getIntProperty("unitTestUndefinedKey", 7), 7);
+        Assert.assertTrue(configManager.getBooleanProperty("unitTestUndefinedKey", true));
+    }
+
+    @Test(description = "reload() publishes a new snapshot and leaves the previous one unchanged")
+    public void testReloadSwapsSnapshot() throws IOException {
+        Path configFile = writeConfig("unitTestValue=1\n");
+        System.setProperty("configFile", configFile.toString());
+        ConfigManager configManager = ConfigManager.getInstance();
+        configManager.reload();
+        ConfigManager.Snapshot first = configManager.getSnapshot();
+        Assert.assertEquals(configManager.getIntProperty("unitTestValue", 0), 1);
+
+        writeConfig("unitTestValue=2\n");
+        configManager.reload();
+
+        Assert.assertNotSame(configManager.getSnapshot(), first);
+        Assert.assertEquals(configManager.getIntProperty("unitTestValue", 0), 2);
+        Assert.assertEquals(first.getInt("unitTestValue", 0), 1);
+    }
+
+    @Test(description = "With configHotReload=true, rewriting the config file swaps the snapshot")
+    public void testHotReloadSwapsSnapshotWhenFileChanges() throws Exception {
+        Path configFile = writeConfig("configHotReload=true\nunitTestValue=1\n");
+        System.setProperty("configFile", configFile.toString());
+        ConfigManager configManager = ConfigManager.getInstance();
+        configManager.reload();
+        ConfigManager.Snapshot first = configManager.getSnapshot();
+        Assert.assertEquals(first.getInt("unitTestValue", 0), 1);
+
+        writeConfig("configHotReload=true\nunitTestValue=2\n");
+        long deadline = System.currentTimeMillis() + 15000;
+        while (configManager.getIntProperty("unitTestValue", 0) != 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        Assert.assertEquals(configManager.getIntProperty("unitTestValue", 0), 2, "Snapshot was not reloaded");
+        Assert.assertNotSame(configManager.getSnapshot(), first);
+    }
+
+    private Path writeConfig(String content) throws IOException {
+        if (configDirectory == null) {
+            configDirectory = Files.createTempDirectory("config");
+        }
+        Path configFile = configDirectory.resolve("config.properties");
+        Path tempFile = Files.createTempFile(configDirectory, "config", ".tmp");
+        Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
+        Files.move(tempFile, configFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return configFile;
+    }
+}
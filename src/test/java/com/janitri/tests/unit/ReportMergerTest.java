@@ -0,0 +1,100 @@
+package com.janitri.tests.unit;
+
+import com.janitri.utils.ReportMerger;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests for merging result shards
+ */
+public class ReportMergerTest {
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("result-shards");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(description = "Shards are merged in timestamp order, skipping a truncated trailing line")
+    public void testMergeOrdersByTimestampAndSkipsTruncatedLine() throws IOException {
+        Path first = writeShard("a.jsonl",
+                record("a1", "2024-01-01T10:00:01"),
+                record("a2", "2024-01-01T10:00:04"),
+                "{\"testName\":\"a3\",\"timesta");
+        Path second = writeShard("b.jsonl",
+                record("b1", "2024-01-01T10:00:02"),
+                record("b2", "2024-01-01T10:00:03"),
+                record("b3", "2024-01-01T10:00:05"));
+        Path output = directory.resolve("merged.jsonl");
+
+        long records = ReportMerger.merge(Arrays.asList(first, second), output);
+
+        Assert.assertEquals(records, 5);
+        Assert.assertEquals(testNames(output), Arrays.asList("a1", "b1", "b2", "a2", "b3"));
+    }
+
+    @Test(description = "Records with the same timestamp keep the order of their shards")
+    public void testEqualTimestampsKeepShardOrder() throws IOException {
+        Path first = writeShard("a.jsonl", record("a1", "2024-01-01T10:00:00"));
+        Path second = writeShard("b.jsonl", record("b1", "2024-01-01T10:00:00"));
+        Path empty = writeShard("c.jsonl");
+        Assert.assertEquals(ReportMerger.listShards(directory).size(), 3);
+        Path output = directory.resolve("merged.jsonl");
+
+        ReportMerger.merge(Arrays.asList(second, empty, first), output);
+
+        Assert.assertEquals(testNames(output), Arrays.asList("b1", "a1"));
+    }
+
+    @Test(description = "A screenshot record appended after later results is applied to the result it refers to")
+    public void testScreenshotRecordIsAppliedToItsResult() throws IOException {
+        Path shard = writeShard("a.jsonl",
+                "{\"resultId\":\"1-1\",\"testName\":\"a1\",\"screenshot\":\"\",\"timestamp\":\"2024-01-01T10:00:01\"}",
+                record("a2", "2024-01-01T10:00:02"),
+                ReportMerger.screenshotRecord("1-1", "screenshots/objects/abc.png"));
+        Path output = directory.resolve("merged.jsonl");
+
+        long records = ReportMerger.merge(Arrays.asList(shard), output);
+
+        Assert.assertEquals(records, 2);
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        Assert.assertTrue(lines.get(0).contains("\"screenshot\":\"screenshots/objects/abc.png\""), lines.get(0));
+        Assert.assertEquals(testNames(output), Arrays.asList("a1", "a2"));
+    }
+
+    private Path writeShard(String name, String... lines) throws IOException {
+        Path shard = directory.resolve(name);
+        Files.write(shard, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return shard;
+    }
+
+    private static String record(String testName, String timestamp) {
+        return "{\"testName\":\"" + testName + "\",\"status\":\"PASS\",\"timestamp\":\"" + timestamp + "\"}";
+    }
+
+    private static List<String> testNames(Path output) throws IOException {
+        try (Stream<String> lines = Files.lines(output, StandardCharsets.UTF_8)) {
+            return lines.map(line -> line.replaceAll(".*\"testName\":\"([^\"]*)\".*", "$1"))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.janitri.tests.unit;
+
+import com.janitri.utils.TestHistoryStore;
+import com.janitri.utils.TestHistoryStore.Execution;
+import com.janitri.utils.TestHistoryStore.TestTrend;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the binary test history store
+ */
+public class TestHistoryStoreTest {
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("test-history");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(description = "Executions of a test are read back newest first by following its record chain")
+    public void testRecentFollowsRecordChain() throws IOException {
+        TestHistoryStore store = new TestHistoryStore(directory);
+        store.record("run1", Arrays.asList(
+                new Execution("A.test", "PASS", 100, 1),
+                new Execution("B.test", "FAIL", 900, 2),
+                new Execution("A.test", "FAIL", 200, 3),
+                new Execution("A.test", "PASS", 300, 4)).iterator());
+
+        List<Execution> executions = new TestHistoryStore(directory).recent("A.test", 10);
+        Assert.assertEquals(executions.size(), 3);
+        Assert.assertEquals(executions.get(0).getDurationMs(), 300);
+        Assert.assertEquals(executions.get(1).getDurationMs(), 200);
+        Assert.assertFalse(executions.get(1).isPassed());
+        Assert.assertEquals(executions.get(2).getEpochMillis(), 1);
+        Assert.assertEquals(store.recent("A.test", 2).size(), 2);
+        Assert.assertTrue(store.recent("C.test", 10).isEmpty());
+    }
+
+    @Test(description = "Skipped executions are not recorded")
+    public void testSkippedExecutionsAreNotRecorded() throws IOException {
+        TestHistoryStore store = new TestHistoryStore(directory);
+        List<String> recorded = store.record("run1", Arrays.asList(
+                new Execution("A.test", "SKIP", 100, 1),
+                new Execution("A.test", "PASS", 100, 2)).iterator());
+
+        Assert.assertEquals(recorded.size(), 1);
+        Assert.assertEquals(store.recent("A.test", 10).size(), 1);
+    }
+
+    @Test(description = "Percentiles compare the newest executions with the older ones; streaks count from the newest")
+    public void testPercentilesAndStreak() throws IOException {
+        TestHistoryStore store = new TestHistoryStore(directory);
+        List<Execution> executions = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            executions.add(new Execution("A.test", i <= 7 ? "PASS" : "FAIL", i * 100L, i));
+        }
+        store.record("run1", executions.iterator());
+
+        TestTrend trend = store.analyze("A.test", 10, 5);
+        Assert.assertEquals(trend.getExecutions(), 10);
+        Assert.assertEquals(trend.getRecentP50(), 800);
+        Assert.assertEquals(trend.getRecentP95(), 1000);
+        Assert.assertEquals(trend.getBaselineP50(), 300);
+        Assert.assertEquals(trend.getBaselineP95(), 500);
+        Assert.assertFalse(trend.isLastPassed());
+        Assert.assertEquals(trend.getStreak(), 3);
+        Assert.assertEquals(trend.getFlips(), 1);
+        Assert.assertEquals(trend.getPassRate(), 70);
+        Assert.assertTrue(trend.isSlowerThanBaseline(25, 100, 5));
+        Assert.assertFalse(trend.isSlowerThanBaseline(25, 100, 6));
+        Assert.assertFalse(trend.isFlaky(2));
+    }
+
+    @Test(description = "A test that alternates between passing and failing is flaky but not slower")
+    public void testFlakyTest() throws IOException {
+        TestHistoryStore store = new TestHistoryStore(directory);
+        List<Execution> executions = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            executions.add(new Execution("A.test", i % 2 == 0 ? "PASS" : "FAIL", 100, i));
+        }
+        store.record("run1", executions.iterator());
+
+        TestTrend trend = store.analyze("A.test", 20, 3);
+        Assert.assertTrue(trend.isFlaky(2));
+        Assert.assertEquals(trend.getFlips(), 5);
+        Assert.assertEquals(trend.getStreak(), 1);
+        Assert.assertFalse(trend.isSlowerThanBaseline(25, 0, 3));
+        Assert.assertNull(store.analyze("B.test", 20, 3));
+    }
+
+    @Test(description = "Recording the same run again adds nothing")
+    public void testRerecordingSameRunAddsNothing() throws IOException {
+        List<Execution> executions = Arrays.asList(
+                new Execution("A.test", "PASS", 100, 1),
+                new Execution("B.test", "PASS", 100, 2));
+        new TestHistoryStore(directory).record("run1", executions.iterator());
+        List<String> recorded = new TestHistoryStore(directory).record("run1", executions.iterator());
+
+        Assert.assertTrue(recorded.isEmpty());
+        Assert.assertEquals(new TestHistoryStore(directory).recent("A.test", 10).size(), 1);
+        Assert.assertEquals(new TestHistoryStore(directory).record("run2", executions.iterator()).size(), 2);
+    }
+
+    @Test(description = "Results of another JVM that are older than already recorded ones are still recorded")
+    public void testInterleavedResultsOfSeveralJvms() throws IOException {
+        new TestHistoryStore(directory).record("run1", Arrays.asList(
+                new Execution("A.test", "PASS", 100, 10),
+                new Execution("A.test", "PASS", 100, 20)).iterator());
+        List<String> recorded = new TestHistoryStore(directory).record("run1", Arrays.asList(
+                new Execution("A.test", "PASS", 100, 5),
+                new Execution("A.test", "PASS", 100, 10),
+                new Execution("A.test", "PASS", 100, 15),
+                new Execution("A.test", "PASS", 100, 20),
+                new Execution("A.test", "PASS", 100, 25)).iterator());
+
+        Assert.assertEquals(recorded.size(), 3);
+        Assert.assertEquals(new TestHistoryStore(directory).recent("A.test", 10).size(), 5);
+    }
+}